@@ -0,0 +1,97 @@
+package com.example.datepicker
+
+import android.os.SystemClock
+import android.view.View.MeasureSpec
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Instrumented test of [NumberPicker.animateToValue] landing on its target in
+ * both orders and notifying the listener once with all the steps.
+ *
+ * See [testing documentation](http://d.android.com/tools/testing).
+ */
+@RunWith(AndroidJUnit4::class)
+class NumberPickerAnimateToValueTest {
+
+    @Test
+    fun animatesDownInAscendingOrder() {
+        assertAnimatesTo(NumberPicker.ASCENDING, wrap = false, from = 500, to = 20, steps = -480)
+    }
+
+    @Test
+    fun animatesUpInAscendingOrder() {
+        assertAnimatesTo(NumberPicker.ASCENDING, wrap = false, from = 20, to = 500, steps = 480)
+    }
+
+    @Test
+    fun animatesDownInDescendingOrder() {
+        assertAnimatesTo(NumberPicker.DESCENDING, wrap = false, from = 500, to = 20, steps = -480)
+    }
+
+    @Test
+    fun animatesUpInDescendingOrder() {
+        assertAnimatesTo(NumberPicker.DESCENDING, wrap = false, from = 20, to = 500, steps = 480)
+    }
+
+    @Test
+    fun wrapsTheShorterWayInAscendingOrder() {
+        assertAnimatesTo(NumberPicker.ASCENDING, wrap = true, from = 990, to = 10, steps = 21)
+    }
+
+    @Test
+    fun wrapsTheShorterWayInDescendingOrder() {
+        assertAnimatesTo(NumberPicker.DESCENDING, wrap = true, from = 10, to = 990, steps = -21)
+    }
+
+    private fun assertAnimatesTo(order: Int, wrap: Boolean, from: Int, to: Int, steps: Int) {
+        val instrumentation = InstrumentationRegistry.getInstrumentation()
+        val changes = mutableListOf<Triple<Int, Int, Int>>()
+        lateinit var picker: NumberPicker
+        instrumentation.runOnMainSync {
+            picker = createPicker(order, wrap)
+            picker.value = from
+            picker.setOnChangedListener { p, oldVal, newVal ->
+                changes.add(Triple(oldVal, newVal, p.valueChangeSteps))
+            }
+            picker.animateToValue(to, DURATION)
+        }
+        val deadline = SystemClock.uptimeMillis() + TIMEOUT
+        while (changes.isEmpty() && SystemClock.uptimeMillis() < deadline) {
+            SystemClock.sleep(FRAME)
+            instrumentation.runOnMainSync { picker.computeScroll() }
+        }
+        // let a late second notification show up
+        SystemClock.sleep(FRAME)
+        instrumentation.runOnMainSync { picker.computeScroll() }
+        instrumentation.runOnMainSync {
+            assertEquals(to, picker.value)
+        }
+        assertEquals(listOf(Triple(from, to, steps)), changes)
+    }
+
+    private fun createPicker(order: Int, wrap: Boolean): NumberPicker {
+        val picker = NumberPicker(InstrumentationRegistry.getInstrumentation().targetContext)
+        picker.minValue = 0
+        picker.maxValue = 1000
+        picker.setOrder(order)
+        picker.wrapSelectorWheel = wrap
+        picker.setWheelItemCount(5)
+        picker.measure(exactly(WIDTH), exactly(HEIGHT))
+        picker.layout(0, 0, WIDTH, HEIGHT)
+        return picker
+    }
+
+    private fun exactly(size: Int) = MeasureSpec.makeMeasureSpec(size, MeasureSpec.EXACTLY)
+
+    companion object {
+        private const val WIDTH = 300
+        private const val HEIGHT = 540
+        private const val DURATION = 100
+        private const val FRAME = 16L
+        private const val TIMEOUT = 2000L
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.datepicker
+
+import android.graphics.Bitmap
+import android.graphics.Canvas
+import android.os.Debug
+import android.view.View.MeasureSpec
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Instrumented test guarding that the curved wheel of a [NumberPicker] looks
+ * its slot transforms up in a table computed at layout time, so drawing a
+ * frame neither rebuilds the table nor allocates.
+ *
+ * See [testing documentation](http://d.android.com/tools/testing).
+ */
+@RunWith(AndroidJUnit4::class)
+class NumberPickerCurvedWheelDrawTest {
+
+    @Test
+    @Suppress("DEPRECATION")
+    fun curvedWheelDrawUsesPrecomputedTransformsWithoutAllocating() {
+        val instrumentation = InstrumentationRegistry.getInstrumentation()
+        var allocations = 0
+        instrumentation.runOnMainSync {
+            val picker = createPicker()
+            val canvas = Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888))
+            val transforms = curvedWheelTransforms(picker)
+            assertNotNull("Transforms computed at layout time", transforms)
+            // the first frame may lazily create drawing state
+            picker.draw(canvas)
+
+            Debug.startAllocCounting()
+            try {
+                for (frame in 0 until FLING_FRAMES) {
+                    // a decelerating fling, scrolling is not part of the measurement
+                    picker.scrollBy(0, -(FLING_FRAMES - frame))
+                    Debug.resetThreadAllocCount()
+                    picker.draw(canvas)
+                    allocations += Debug.getThreadAllocCount()
+                }
+            } finally {
+                Debug.stopAllocCounting()
+            }
+            assertSame("Transforms rebuilt while drawing", transforms,
+                    curvedWheelTransforms(picker))
+        }
+        assertEquals("Objects allocated while drawing a curved fling", 0, allocations)
+    }
+
+    private fun createPicker(): NumberPicker {
+        val picker = NumberPicker(InstrumentationRegistry.getInstrumentation().targetContext)
+        picker.minValue = 0
+        picker.maxValue = 100
+        picker.setWheelItemCount(7)
+        picker.isCurvedWheelEnabled = true
+        picker.measure(exactly(WIDTH), exactly(HEIGHT))
+        picker.layout(0, 0, WIDTH, HEIGHT)
+        return picker
+    }
+
+    private fun curvedWheelTransforms(picker: NumberPicker): Any? =
+            NumberPicker::class.java.getDeclaredField("mCurvedWheelTransforms")
+                    .apply { isAccessible = true }
+                    .get(picker)
+
+    private fun exactly(size: Int) = MeasureSpec.makeMeasureSpec(size, MeasureSpec.EXACTLY)
+
+    companion object {
+        private const val WIDTH = 300
+        private const val HEIGHT = 540
+        private const val FLING_FRAMES = 60
+    }
+}
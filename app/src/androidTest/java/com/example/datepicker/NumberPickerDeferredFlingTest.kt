@@ -0,0 +1,89 @@
+package com.example.datepicker
+
+import android.view.View.MeasureSpec
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Instrumented test of the value of a deferred fling being resolved once the
+ * wheel settles, including flings wrapping the wheel whole times.
+ *
+ * The landing of a real fling depends on the velocity tracker, so the test
+ * defers the value like a fling does and scrolls the wheel by exact items.
+ *
+ * See [testing documentation](http://d.android.com/tools/testing).
+ */
+@RunWith(AndroidJUnit4::class)
+class NumberPickerDeferredFlingTest {
+
+    private val instrumentation = InstrumentationRegistry.getInstrumentation()
+
+    @Test
+    fun flingByAFullRangeOfDaysAdvancesTheMonth() {
+        instrumentation.runOnMainSync {
+            val datePicker = createDatePicker()
+            datePicker.updateDate(2030, 0, 15)
+            val dayPicker = datePicker.findViewById<NumberPicker>(R.id.day_picker)
+            assertTrue(dayPicker.wrapSelectorWheel)
+
+            flingBy(dayPicker, 31)
+
+            assertEquals(15, dayPicker.value)
+            assertEquals(2030, datePicker.year)
+            assertEquals(1, datePicker.month)
+            assertEquals(15, datePicker.dayOfMonth)
+        }
+    }
+
+    @Test
+    fun flingByAFullRangeOfMonthsAdvancesTheYear() {
+        instrumentation.runOnMainSync {
+            val datePicker = createDatePicker()
+            datePicker.updateDate(2030, 4, 15)
+            val monthPicker = datePicker.findViewById<NumberPicker>(R.id.month_picker)
+            assertTrue(monthPicker.wrapSelectorWheel)
+
+            flingBy(monthPicker, -12)
+
+            assertEquals(4, monthPicker.value)
+            assertEquals(2029, datePicker.year)
+            assertEquals(4, datePicker.month)
+            assertEquals(15, datePicker.dayOfMonth)
+        }
+    }
+
+    /**
+     * Scrolls the wheel by the given items while its value is deferred like
+     * during a fling, then lets it settle.
+     */
+    private fun flingBy(picker: NumberPicker, items: Int) {
+        field("mValueDeferred").setBoolean(picker, true)
+        val elementSize = field("mSelectorElementSize").getInt(picker)
+        // scrolling up moves an ascending wheel to greater values
+        picker.scrollBy(0, -items * elementSize)
+        val resolve = NumberPicker::class.java.getDeclaredMethod("resolveDeferredValue")
+        resolve.isAccessible = true
+        resolve.invoke(picker)
+    }
+
+    private fun field(name: String) =
+            NumberPicker::class.java.getDeclaredField(name).apply { isAccessible = true }
+
+    private fun createDatePicker(): DatePicker {
+        val datePicker = DatePicker(instrumentation.targetContext)
+        datePicker.measure(exactly(WIDTH), exactly(HEIGHT))
+        datePicker.layout(0, 0, WIDTH, HEIGHT)
+        return datePicker
+    }
+
+    private fun exactly(size: Int) = MeasureSpec.makeMeasureSpec(size, MeasureSpec.EXACTLY)
+
+    companion object {
+        private const val WIDTH = 600
+        private const val HEIGHT = 540
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.datepicker
+
+import android.graphics.Bitmap
+import android.graphics.Canvas
+import android.os.Debug
+import android.view.View.MeasureSpec
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Instrumented test guarding that drawing a [NumberPicker] frame does not allocate.
+ *
+ * See [testing documentation](http://d.android.com/tools/testing).
+ */
+@RunWith(AndroidJUnit4::class)
+class NumberPickerDrawAllocationTest {
+
+    @Test
+    @Suppress("DEPRECATION")
+    fun drawDoesNotAllocateDuringFling() {
+        val instrumentation = InstrumentationRegistry.getInstrumentation()
+        var allocations = 0
+        instrumentation.runOnMainSync {
+            val picker = NumberPicker(instrumentation.targetContext)
+            picker.minValue = 0
+            picker.maxValue = 100
+            picker.measure(exactly(WIDTH), exactly(HEIGHT))
+            picker.layout(0, 0, WIDTH, HEIGHT)
+            val canvas = Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888))
+            // the first frame may lazily create drawing state
+            picker.draw(canvas)
+
+            Debug.startAllocCounting()
+            try {
+                for (frame in 0 until FLING_FRAMES) {
+                    // a decelerating fling, scrolling is not part of the measurement
+                    picker.scrollBy(0, -(FLING_FRAMES - frame))
+                    Debug.resetThreadAllocCount()
+                    picker.draw(canvas)
+                    allocations += Debug.getThreadAllocCount()
+                }
+            } finally {
+                Debug.stopAllocCounting()
+            }
+        }
+        assertEquals("Objects allocated while drawing a fling", 0, allocations)
+    }
+
+    private fun exactly(size: Int) = MeasureSpec.makeMeasureSpec(size, MeasureSpec.EXACTLY)
+
+    companion object {
+        private const val WIDTH = 300
+        private const val HEIGHT = 540
+        private const val FLING_FRAMES = 60
+    }
+}
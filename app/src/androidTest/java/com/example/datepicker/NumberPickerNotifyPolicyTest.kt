@@ -0,0 +1,126 @@
+package com.example.datepicker
+
+import android.os.SystemClock
+import android.view.View.MeasureSpec
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Instrumented test of the coalescing value change notify policies of
+ * [NumberPicker] and [DatePicker].
+ *
+ * See [testing documentation](http://d.android.com/tools/testing).
+ */
+@RunWith(AndroidJUnit4::class)
+class NumberPickerNotifyPolicyTest {
+
+    private val instrumentation = InstrumentationRegistry.getInstrumentation()
+
+    @Test
+    fun perFrameCoalescesTheChangesOfAFrame() {
+        val changes = mutableListOf<Triple<Int, Int, Int>>()
+        lateinit var picker: NumberPicker
+        instrumentation.runOnMainSync {
+            picker = createPicker(NumberPicker.NOTIFY_PER_FRAME, changes)
+            picker.scrollBy(0, -HEIGHT / 2)
+            assertTrue(changes.isEmpty())
+        }
+        awaitFrame()
+        instrumentation.runOnMainSync {
+            assertTrue(picker.value - START >= 2)
+            assertEquals(listOf(Triple(START, picker.value, picker.value - START)), changes)
+        }
+    }
+
+    @Test
+    fun onSettleNotifiesOnceTheWheelSettled() {
+        val changes = mutableListOf<Triple<Int, Int, Int>>()
+        lateinit var picker: NumberPicker
+        instrumentation.runOnMainSync {
+            picker = createPicker(NumberPicker.NOTIFY_ON_SETTLE, changes)
+            picker.smoothScroll(true, 3)
+        }
+        val deadline = SystemClock.uptimeMillis() + TIMEOUT
+        while (changes.isEmpty() && SystemClock.uptimeMillis() < deadline) {
+            SystemClock.sleep(FRAME)
+            instrumentation.runOnMainSync { picker.computeScroll() }
+        }
+        instrumentation.runOnMainSync {
+            assertEquals(START + 3, picker.value)
+            assertEquals(listOf(Triple(START, START + 3, 3)), changes)
+        }
+    }
+
+    @Test
+    fun setValueDropsThePendingChanges() {
+        val changes = mutableListOf<Triple<Int, Int, Int>>()
+        lateinit var picker: NumberPicker
+        instrumentation.runOnMainSync {
+            picker = createPicker(NumberPicker.NOTIFY_PER_FRAME, changes)
+            picker.scrollBy(0, -HEIGHT / 2)
+            picker.value = 10
+        }
+        awaitFrame()
+        instrumentation.runOnMainSync {
+            assertEquals(10, picker.value)
+            assertTrue(changes.isEmpty())
+        }
+    }
+
+    @Test
+    fun updateDateIsNotMovedByPendingChanges() {
+        lateinit var datePicker: DatePicker
+        instrumentation.runOnMainSync {
+            datePicker = DatePicker(instrumentation.targetContext)
+            datePicker.setDateChangeNotifyPolicy(NumberPicker.NOTIFY_PER_FRAME)
+            datePicker.measure(exactly(WIDTH), exactly(HEIGHT))
+            datePicker.layout(0, 0, WIDTH, HEIGHT)
+            val dayPicker = datePicker.findViewById<NumberPicker>(R.id.day_picker)
+            dayPicker.scrollBy(0, -dayPicker.height / 2)
+            datePicker.updateDate(2030, 5, 15)
+        }
+        awaitFrame()
+        instrumentation.runOnMainSync {
+            assertEquals(2030, datePicker.year)
+            assertEquals(5, datePicker.month)
+            assertEquals(15, datePicker.dayOfMonth)
+        }
+    }
+
+    private fun createPicker(policy: Int, changes: MutableList<Triple<Int, Int, Int>>): NumberPicker {
+        val picker = NumberPicker(instrumentation.targetContext)
+        picker.minValue = 0
+        picker.maxValue = 100
+        picker.setWheelItemCount(5)
+        picker.value = START
+        picker.setValueChangeNotifyPolicy(policy)
+        picker.setOnChangedListener { p, oldVal, newVal ->
+            changes.add(Triple(oldVal, newVal, p.valueChangeSteps))
+        }
+        picker.measure(exactly(WIDTH), exactly(HEIGHT))
+        picker.layout(0, 0, WIDTH, HEIGHT)
+        return picker
+    }
+
+    /**
+     * Waits until the frame callbacks posted so far ran.
+     */
+    private fun awaitFrame() {
+        SystemClock.sleep(FRAME * 4)
+        instrumentation.waitForIdleSync()
+    }
+
+    private fun exactly(size: Int) = MeasureSpec.makeMeasureSpec(size, MeasureSpec.EXACTLY)
+
+    companion object {
+        private const val WIDTH = 300
+        private const val HEIGHT = 540
+        private const val START = 50
+        private const val FRAME = 16L
+        private const val TIMEOUT = 2000L
+    }
+}
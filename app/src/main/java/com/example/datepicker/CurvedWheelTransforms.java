@@ -0,0 +1,123 @@
+package com.example.datepicker;
+
+import android.graphics.Camera;
+import android.graphics.Matrix;
+
+/**
+ * Table of the transforms projecting the labels of a {@link NumberPicker}
+ * wheel onto a cylinder.
+ * <p>
+ * The rotation, scale and alpha of a label only depend on the distance of
+ * its slot from the wheel center, so they are computed once per quantized
+ * distance and drawing a frame only looks them up. The distance is quantized
+ * into {@link #STEPS_PER_ELEMENT} steps per selector element.
+ * </p>
+ */
+final class CurvedWheelTransforms {
+
+    /**
+     * The number of quantization steps within a selector element.
+     */
+    static final int STEPS_PER_ELEMENT = 16;
+
+    /**
+     * The camera used to compute the rotations.
+     */
+    private final Camera mCamera = new Camera();
+
+    /**
+     * The transforms by quantized distance, centered at the wheel center.
+     */
+    private Matrix[] mMatrices = new Matrix[0];
+
+    /**
+     * The alphas by quantized distance, centered at the wheel center.
+     */
+    private int[] mAlphas = new int[0];
+
+    /**
+     * The number of quantization steps from the wheel center to either end
+     * of the visible arc.
+     */
+    private int mMaxStep;
+
+    /**
+     * The size of a quantization step.
+     */
+    private float mStepSize;
+
+    /**
+     * Computes the transforms of a wheel.
+     *
+     * @param horizontal Whether the wheel scrolls horizontally.
+     * @param elementSize The size of a selector element.
+     * @param centerX The x coordinate of the wheel center.
+     * @param centerY The y coordinate of the wheel center.
+     * @param radius The radius of the cylinder, which is half the wheel length.
+     */
+    void update(boolean horizontal, int elementSize, float centerX, float centerY,
+                float radius) {
+        if (elementSize <= 0 || radius <= 0) {
+            mMaxStep = 0;
+            mStepSize = 0;
+            return;
+        }
+        mStepSize = (float) elementSize / STEPS_PER_ELEMENT;
+        mMaxStep = (int) Math.ceil(radius * Math.PI / 2 / mStepSize);
+        final int size = 2 * mMaxStep + 1;
+        if (mMatrices.length < size) {
+            final Matrix[] matrices = new Matrix[size];
+            System.arraycopy(mMatrices, 0, matrices, 0, mMatrices.length);
+            for (int i = mMatrices.length; i < size; i++) {
+                matrices[i] = new Matrix();
+            }
+            mMatrices = matrices;
+            mAlphas = new int[size];
+        }
+        for (int step = -mMaxStep; step <= mMaxStep; step++) {
+            final float distance = step * mStepSize;
+            final double angle = Math.max(-Math.PI / 2, Math.min(Math.PI / 2, distance / radius));
+            final float projected = (float) (radius * Math.sin(angle));
+            final float degrees = (float) Math.toDegrees(angle);
+
+            final Matrix matrix = mMatrices[step + mMaxStep];
+            mCamera.save();
+            if (horizontal) {
+                mCamera.rotateY(degrees);
+            } else {
+                mCamera.rotateX(-degrees);
+            }
+            mCamera.getMatrix(matrix);
+            mCamera.restore();
+            if (horizontal) {
+                matrix.preTranslate(-(centerX + distance), -centerY);
+                matrix.postTranslate(centerX + projected, centerY);
+            } else {
+                matrix.preTranslate(-centerX, -(centerY + distance));
+                matrix.postTranslate(centerX, centerY + projected);
+            }
+            mAlphas[step + mMaxStep] = (int) (Math.cos(angle) * 255 + 0.5);
+        }
+    }
+
+    /**
+     * @param distance The distance of a slot center from the wheel center.
+     * @return The index of the transform of the slot or -1 if the slot is
+     * outside the visible arc.
+     */
+    int indexOf(float distance) {
+        if (mStepSize == 0) {
+            return -1;
+        }
+        final int step = Math.round(distance / mStepSize);
+        return step < -mMaxStep || step > mMaxStep ? -1 : step + mMaxStep;
+    }
+
+    Matrix getMatrix(int index) {
+        return mMatrices[index];
+    }
+
+    int getAlpha(int index) {
+        return mAlphas[index];
+    }
+}
@@ -5,7 +5,6 @@ import android.content.res.Configuration;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.text.TextUtils;
-import android.text.format.DateFormat;
 import android.text.format.DateUtils;
 import android.util.AttributeSet;
 import android.util.SparseArray;
@@ -53,6 +52,8 @@ public class DatePicker extends BasePicker {
 
     private boolean mIsEnabled = DEFAULT_ENABLED_STATE;
 
+    private final PerformanceSampler mPerformanceSampler = new PerformanceSampler(this);
+
     public DatePicker(Context context) {
         this(context, null);
     }
@@ -77,25 +78,11 @@ public class DatePicker extends BasePicker {
                 updateInputState();
                 mTempDate.setTimeInMillis(mCurrentDate.getTimeInMillis());
                 // take care of wrapping of days and months to update greater
-                // fields
+                // fields, the steps count every wrap of a fling landing at once
                 if (picker == mDayNPicker) {
-                    int maxDayOfMonth = mTempDate
-                            .getActualMaximum(Calendar.DAY_OF_MONTH);
-                    if (oldVal == maxDayOfMonth && newVal == 1) {
-                        mTempDate.add(Calendar.DAY_OF_MONTH, 1);
-                    } else if (oldVal == 1 && newVal == maxDayOfMonth) {
-                        mTempDate.add(Calendar.DAY_OF_MONTH, -1);
-                    } else {
-                        mTempDate.add(Calendar.DAY_OF_MONTH, newVal - oldVal);
-                    }
+                    mTempDate.add(Calendar.DAY_OF_MONTH, picker.getValueChangeSteps());
                 } else if (picker == mMonthNPicker) {
-                    if (oldVal == 11 && newVal == 0) {
-                        mTempDate.add(Calendar.MONTH, 1);
-                    } else if (oldVal == 0 && newVal == 11) {
-                        mTempDate.add(Calendar.MONTH, -1);
-                    } else {
-                        mTempDate.add(Calendar.MONTH, newVal - oldVal);
-                    }
+                    mTempDate.add(Calendar.MONTH, picker.getValueChangeSteps());
                 } else if (picker == mYearNPicker) {
                     mTempDate.set(Calendar.YEAR, newVal);
                 } else {
@@ -253,6 +240,7 @@ public class DatePicker extends BasePicker {
     @Override
     protected void onConfigurationChanged(Configuration newConfig) {
         super.onConfigurationChanged(newConfig);
+        LocaleRegistry.onLocaleChanged(newConfig.locale);
         setCurrentLocale(newConfig.locale);
     }
 
@@ -274,18 +262,19 @@ public class DatePicker extends BasePicker {
         if (locale.equals(mCurrentLocale)) {
             return;
         }
+        final boolean traced = PickerTrace.beginSection("DatePicker.setCurrentLocale");
+        try {
+            mCurrentLocale = locale;
 
-        mCurrentLocale = locale;
-
-        mTempDate = getCalendarForLocale(mTempDate, locale);
-        mMinDate = getCalendarForLocale(mMinDate, locale);
-        mMaxDate = getCalendarForLocale(mMaxDate, locale);
-        mCurrentDate = getCalendarForLocale(mCurrentDate, locale);
+            mTempDate = getCalendarForLocale(mTempDate, locale);
+            mMinDate = getCalendarForLocale(mMinDate, locale);
+            mMaxDate = getCalendarForLocale(mMaxDate, locale);
+            mCurrentDate = getCalendarForLocale(mCurrentDate, locale);
 
-        mNumberOfMonths = mTempDate.getActualMaximum(Calendar.MONTH) + 1;
-        mShortMonths = new String[mNumberOfMonths];
-        for (int i = 0; i < mNumberOfMonths; i++) {
-            mShortMonths[i] = DateUtils.getMonthString(Calendar.JANUARY + i, DateUtils.LENGTH_MEDIUM);
+            mShortMonths = LocaleRegistry.getShortMonths(locale);
+            mNumberOfMonths = mShortMonths.length;
+        } finally {
+            PickerTrace.endSection(traced);
         }
     }
 
@@ -313,31 +302,36 @@ public class DatePicker extends BasePicker {
      * default format.
      */
     private void reorderNPickers() {
-        mNPickers.removeAllViews();
-        char[] order;
+        final boolean traced = PickerTrace.beginSection("DatePicker.reorderNPickers");
         try {
-            order = DateFormat.getDateFormatOrder(getContext());
-        } catch (IllegalArgumentException expected) {
-            order = new char[0];
-        }
-        final int NPickerCount = order.length;
-        for (int i = 0; i < NPickerCount; i++) {
-            switch (order[i]) {
-                case 'd':
-                    mNPickers.addView(mDayNPicker);
-                    setImeOptions(mDayNPicker, NPickerCount, i);
-                    break;
-                case 'M':
-                    mNPickers.addView(mMonthNPicker);
-                    setImeOptions(mMonthNPicker, NPickerCount, i);
-                    break;
-                case 'y':
-                    mNPickers.addView(mYearNPicker);
-                    setImeOptions(mYearNPicker, NPickerCount, i);
-                    break;
-                default:
-                    throw new IllegalArgumentException();
+            mNPickers.removeAllViews();
+            char[] order;
+            try {
+                order = LocaleRegistry.getDateFormatOrder(getContext(), mCurrentLocale);
+            } catch (IllegalArgumentException expected) {
+                order = new char[0];
             }
+            final int NPickerCount = order.length;
+            for (int i = 0; i < NPickerCount; i++) {
+                switch (order[i]) {
+                    case 'd':
+                        mNPickers.addView(mDayNPicker);
+                        setImeOptions(mDayNPicker, NPickerCount, i);
+                        break;
+                    case 'M':
+                        mNPickers.addView(mMonthNPicker);
+                        setImeOptions(mMonthNPicker, NPickerCount, i);
+                        break;
+                    case 'y':
+                        mNPickers.addView(mYearNPicker);
+                        setImeOptions(mYearNPicker, NPickerCount, i);
+                        break;
+                    default:
+                        throw new IllegalArgumentException();
+                }
+            }
+        } finally {
+            PickerTrace.endSection(traced);
         }
     }
 
@@ -423,47 +417,55 @@ public class DatePicker extends BasePicker {
     }
 
     private void updateNPickers() {
+        final boolean traced = PickerTrace.beginSection("DatePicker.updateNPickers");
+        try {
+            final long start = mPerformanceSampler.begin(
+                    PickerPerformanceListener.SECTION_UPDATE_PICKERS);
+            updateNPickerRanges();
+            mPerformanceSampler.end(PickerPerformanceListener.SECTION_UPDATE_PICKERS, start);
+        } finally {
+            PickerTrace.endSection(traced);
+        }
+    }
+
+    private void updateNPickerRanges() {
         // set the NPicker ranges respecting the min and max dates
+        final int minDay;
+        final int maxDay;
+        final int minMonth;
+        final int maxMonth;
+        final boolean wrap;
         if (mCurrentDate.equals(mMinDate)) {
-            mDayNPicker.setMinValue(mCurrentDate.get(Calendar.DAY_OF_MONTH));
-            mDayNPicker.setMaxValue(mCurrentDate.getActualMaximum(Calendar.DAY_OF_MONTH));
-            mDayNPicker.setWrapSelectorWheel(false);
-            mMonthNPicker.setDisplayedValues(null);
-            mMonthNPicker.setMinValue(mCurrentDate.get(Calendar.MONTH));
-            mMonthNPicker.setMaxValue(mCurrentDate.getActualMaximum(Calendar.MONTH));
-            mMonthNPicker.setWrapSelectorWheel(false);
+            minDay = mCurrentDate.get(Calendar.DAY_OF_MONTH);
+            maxDay = mCurrentDate.getActualMaximum(Calendar.DAY_OF_MONTH);
+            minMonth = mCurrentDate.get(Calendar.MONTH);
+            maxMonth = mCurrentDate.getActualMaximum(Calendar.MONTH);
+            wrap = false;
         } else if (mCurrentDate.equals(mMaxDate)) {
-            mDayNPicker.setMinValue(mCurrentDate.getActualMinimum(Calendar.DAY_OF_MONTH));
-            mDayNPicker.setMaxValue(mCurrentDate.get(Calendar.DAY_OF_MONTH));
-            mDayNPicker.setWrapSelectorWheel(false);
-            mMonthNPicker.setDisplayedValues(null);
-            mMonthNPicker.setMinValue(mCurrentDate.getActualMinimum(Calendar.MONTH));
-            mMonthNPicker.setMaxValue(mCurrentDate.get(Calendar.MONTH));
-            mMonthNPicker.setWrapSelectorWheel(false);
+            minDay = mCurrentDate.getActualMinimum(Calendar.DAY_OF_MONTH);
+            maxDay = mCurrentDate.get(Calendar.DAY_OF_MONTH);
+            minMonth = mCurrentDate.getActualMinimum(Calendar.MONTH);
+            maxMonth = mCurrentDate.get(Calendar.MONTH);
+            wrap = false;
         } else {
-            mDayNPicker.setMinValue(1);
-            mDayNPicker.setMaxValue(mCurrentDate.getActualMaximum(Calendar.DAY_OF_MONTH));
-            mDayNPicker.setWrapSelectorWheel(true);
-            mMonthNPicker.setDisplayedValues(null);
-            mMonthNPicker.setMinValue(0);
-            mMonthNPicker.setMaxValue(11);
-            mMonthNPicker.setWrapSelectorWheel(true);
+            minDay = 1;
+            maxDay = mCurrentDate.getActualMaximum(Calendar.DAY_OF_MONTH);
+            minMonth = 0;
+            maxMonth = 11;
+            wrap = true;
         }
 
+        // each NPicker applies its range, labels and value at once
+        mDayNPicker.setRange(minDay, maxDay, null,
+                mCurrentDate.get(Calendar.DAY_OF_MONTH), wrap);
         // make sure the month names are a zero based array
         // with the months in the month NPicker
-        String[] displayedValues = Arrays.copyOfRange(mShortMonths, mMonthNPicker.getMinValue(), mMonthNPicker.getMaxValue() + 1);
-        mMonthNPicker.setDisplayedValues(displayedValues);
-
+        mMonthNPicker.setRange(minMonth, maxMonth,
+                Arrays.copyOfRange(mShortMonths, minMonth, maxMonth + 1),
+                mCurrentDate.get(Calendar.MONTH), wrap);
         // year NPicker range does not change based on the current date
-        mYearNPicker.setMinValue(mMinDate.get(Calendar.YEAR));
-        mYearNPicker.setMaxValue(mMaxDate.get(Calendar.YEAR));
-        mYearNPicker.setWrapSelectorWheel(false);
-
-        // set the NPicker values
-        mYearNPicker.setValue(mCurrentDate.get(Calendar.YEAR));
-        mMonthNPicker.setValue(mCurrentDate.get(Calendar.MONTH));
-        mDayNPicker.setValue(mCurrentDate.get(Calendar.DAY_OF_MONTH));
+        mYearNPicker.setRange(mMinDate.get(Calendar.YEAR), mMaxDate.get(Calendar.YEAR), null,
+                mCurrentDate.get(Calendar.YEAR), false);
     }
 
     /**
@@ -493,7 +495,9 @@ public class DatePicker extends BasePicker {
     private void notifyDateChanged() {
         sendAccessibilityEvent(AccessibilityEvent.TYPE_VIEW_SELECTED);
         if (mOnChangedListener != null) {
+            final long start = mPerformanceSampler.begin(PickerPerformanceListener.SECTION_LISTENER);
             mOnChangedListener.onChanged(this, getYear(), getMonth(), getDayOfMonth());
+            mPerformanceSampler.end(PickerPerformanceListener.SECTION_LISTENER, start);
         }
     }
 
@@ -541,6 +545,64 @@ public class DatePicker extends BasePicker {
         mOnChangedListener = listener;
     }
 
+    /**
+     * Sets when the {@link OnChangedListener} is notified of date changes made
+     * by the user, with the same policies as
+     * {@link NumberPicker#setValueChangeNotifyPolicy(int)}. The policy is
+     * applied by the NPickers, so the date itself follows the notified
+     * changes and is updated once per coalesced change.
+     *
+     * @param notifyPolicy When date changes are notified.
+     */
+    public void setDateChangeNotifyPolicy(@NumberPicker.NotifyPolicy int notifyPolicy) {
+        mYearNPicker.setValueChangeNotifyPolicy(notifyPolicy);
+        mMonthNPicker.setValueChangeNotifyPolicy(notifyPolicy);
+        mDayNPicker.setValueChangeNotifyPolicy(notifyPolicy);
+    }
+
+    @NumberPicker.NotifyPolicy
+    public int getDateChangeNotifyPolicy() {
+        return mDayNPicker.getValueChangeNotifyPolicy();
+    }
+
+    /**
+     * Sets the listener to be notified with timing samples of this picker
+     * and its NPickers, sampling one out of every <code>sampleInterval</code>
+     * events of each kind.
+     *
+     * @param listener       The listener, <code>null</code> to stop sampling.
+     * @param sampleInterval The number of events per sample.
+     * @throws IllegalArgumentException If <code>sampleInterval</code> is less than one.
+     */
+    public void setPerformanceListener(PickerPerformanceListener listener, int sampleInterval) {
+        mPerformanceSampler.setListener(listener, sampleInterval);
+        mYearNPicker.setPerformanceListener(listener, sampleInterval);
+        mMonthNPicker.setPerformanceListener(listener, sampleInterval);
+        mDayNPicker.setPerformanceListener(listener, sampleInterval);
+    }
+
+    /**
+     * Prepares the labels of the NPickers on a background thread.
+     *
+     * @see NumberPicker#prepareLabels()
+     */
+    public void prepareLabels() {
+        mYearNPicker.prepareLabels();
+        mMonthNPicker.prepareLabels();
+        mDayNPicker.prepareLabels();
+    }
+
+    /**
+     * Loads the month names and the date format order of the default locale
+     * on a background thread, so date pickers created afterwards find them
+     * cached instead of loading them on the main thread.
+     *
+     * @param context The application environment.
+     */
+    public static void prepareLocaleData(Context context) {
+        LabelPreparer.prepareLocaleData(context.getApplicationContext(), Locale.getDefault());
+    }
+
     /**
      * The callback used to indicate the user changes\d the date.
      */
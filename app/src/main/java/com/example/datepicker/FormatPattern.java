@@ -0,0 +1,142 @@
+package com.example.datepicker;
+
+/**
+ * A printf pattern compiled into a plan of literal segments around at most
+ * one integer conversion, e.g. <code>"%02d"</code> or <code>"Day %d"</code>.
+ * <p>
+ * Formatting runs the plan without parsing the pattern again and without
+ * any {@link java.util.Formatter}, writing straight into a char buffer. The
+ * supported syntax is <code>%%</code>, <code>%n</code> and
+ * <code>%[0][width]d</code>, {@link #compile(String)} rejects any other
+ * pattern so callers can fall back to {@link String#format}.
+ * </p>
+ */
+final class FormatPattern implements NumberPicker.Formatter, NumberPicker.CharFormatter {
+
+    /**
+     * The literal chars before the conversion.
+     */
+    private final char[] mPrefix;
+
+    /**
+     * The literal chars after the conversion, empty if there is no conversion.
+     */
+    private final char[] mSuffix;
+
+    /**
+     * The min width of the converted value.
+     */
+    private final int mWidth;
+
+    /**
+     * Formats the digits of the value, <code>null</code> if the pattern has no
+     * conversion.
+     */
+    private final PaddedIntFormatter mDigits;
+
+    private FormatPattern(char[] prefix, char[] suffix, int width, PaddedIntFormatter digits) {
+        mPrefix = prefix;
+        mSuffix = suffix;
+        mWidth = width;
+        mDigits = digits;
+    }
+
+    /**
+     * Compiles the given pattern.
+     *
+     * @return The compiled pattern or <code>null</code> if the pattern uses
+     * syntax which is not supported.
+     */
+    static FormatPattern compile(String pattern) {
+        final StringBuilder prefix = new StringBuilder();
+        final StringBuilder suffix = new StringBuilder();
+        StringBuilder literal = prefix;
+        PaddedIntFormatter digits = null;
+        int width = 0;
+        final int length = pattern.length();
+        int i = 0;
+        while (i < length) {
+            final char c = pattern.charAt(i++);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            if (i == length) {
+                return null;
+            }
+            char conversion = pattern.charAt(i++);
+            if (conversion == '%') {
+                literal.append('%');
+                continue;
+            }
+            if (conversion == 'n') {
+                literal.append(System.lineSeparator());
+                continue;
+            }
+            boolean zeroPad = false;
+            if (conversion == '0') {
+                zeroPad = true;
+                conversion = i < length ? pattern.charAt(i++) : 0;
+            }
+            int conversionWidth = 0;
+            while (conversion >= '0' && conversion <= '9') {
+                conversionWidth = conversionWidth * 10 + conversion - '0';
+                if (conversionWidth > 64) {
+                    return null;
+                }
+                conversion = i < length ? pattern.charAt(i++) : 0;
+            }
+            // a single int argument can be converted only once, without
+            // argument indices, other flags or precision
+            if (conversion != 'd' || digits != null || (zeroPad && conversionWidth == 0)) {
+                return null;
+            }
+            digits = new PaddedIntFormatter(zeroPad ? conversionWidth : 1);
+            width = conversionWidth;
+            literal = suffix;
+        }
+        return new FormatPattern(toChars(prefix), toChars(suffix), width, digits);
+    }
+
+    private static char[] toChars(StringBuilder builder) {
+        final char[] chars = new char[builder.length()];
+        builder.getChars(0, chars.length, chars, 0);
+        return chars;
+    }
+
+    @Override
+    public int getMaxLength() {
+        final int valueLength = mDigits == null ? 0
+                : Math.max(mWidth, mDigits.getMaxLength());
+        return mPrefix.length + valueLength + mSuffix.length;
+    }
+
+    @Override
+    public int format(int value, char[] buffer, int offset) {
+        int position = offset;
+        System.arraycopy(mPrefix, 0, buffer, position, mPrefix.length);
+        position += mPrefix.length;
+        if (mDigits != null) {
+            final int length = mDigits.format(value, buffer, position);
+            final int padding = mWidth - length;
+            if (padding > 0) {
+                // space padded, zero padding is done by the digits
+                System.arraycopy(buffer, position, buffer, position + padding, length);
+                for (int i = position; i < position + padding; i++) {
+                    buffer[i] = ' ';
+                }
+                position += padding;
+            }
+            position += length;
+        }
+        System.arraycopy(mSuffix, 0, buffer, position, mSuffix.length);
+        position += mSuffix.length;
+        return position - offset;
+    }
+
+    @Override
+    public String format(int value) {
+        final char[] buffer = new char[getMaxLength()];
+        return new String(buffer, 0, format(value, buffer, 0));
+    }
+}
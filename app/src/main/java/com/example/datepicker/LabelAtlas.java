@@ -0,0 +1,260 @@
+package com.example.datepicker;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bitmap atlas holding pre-rendered labels of a {@link NumberPicker} wheel.
+ * <p>
+ * Labels are rasterized once into fixed size cells of a single
+ * {@link Bitmap.Config#ALPHA_8} bitmap and blitted from there on every
+ * frame. As the cells only hold coverage, the text color is applied while
+ * blitting and changing it does not require re-rendering. The atlas is
+ * bounded by a byte budget and evicts the least recently used cell once
+ * every cell is in use.
+ * </p>
+ */
+final class LabelAtlas {
+
+    /**
+     * The default memory budget of an atlas.
+     */
+    static final int DEFAULT_MAX_BYTES = 512 * 1024;
+
+    /**
+     * The max width or height of the atlas bitmap.
+     */
+    private static final int MAX_BITMAP_DIMENSION = 2048;
+
+    /**
+     * The max memory budget of the atlas in bytes.
+     */
+    private final int mMaxBytes;
+
+    /**
+     * The cells of labels drawn with the normal style, in access order.
+     */
+    private final LinkedHashMap<String, Integer> mNormalCells =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The cells of labels drawn with the selected style, in access order.
+     */
+    private final LinkedHashMap<String, Integer> mSelectedCells =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The cells which are not in use.
+     */
+    private final ArrayDeque<Integer> mFreeCells = new ArrayDeque<>();
+
+    /**
+     * The source rect of a blit.
+     */
+    private final Rect mSrcRect = new Rect();
+
+    /**
+     * The destination rect of a blit.
+     */
+    private final RectF mDstRect = new RectF();
+
+    /**
+     * The {@link Paint} used for blitting cells.
+     */
+    private final Paint mBlitPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    /**
+     * The {@link Paint} used for rendering labels into cells.
+     */
+    private final Paint mRenderPaint = new Paint();
+
+    /**
+     * The bitmap backing the atlas.
+     */
+    private Bitmap mBitmap;
+
+    /**
+     * The canvas drawing into {@link #mBitmap}.
+     */
+    private Canvas mCanvas;
+
+    /**
+     * The width of a cell.
+     */
+    private int mCellWidth;
+
+    /**
+     * The height of a cell.
+     */
+    private int mCellHeight;
+
+    /**
+     * The number of cells in a row of the atlas.
+     */
+    private int mColumns;
+
+    /**
+     * The number of cells of the atlas.
+     */
+    private int mCapacity;
+
+    LabelAtlas(int maxBytes) {
+        mMaxBytes = maxBytes;
+    }
+
+    int getCellWidth() {
+        return mCellWidth;
+    }
+
+    int getCellHeight() {
+        return mCellHeight;
+    }
+
+    /**
+     * Sets the size of a cell. Changing the size drops all rendered labels.
+     *
+     * @return True if the atlas can hold at least one cell of the given size.
+     */
+    boolean setCellSize(int cellWidth, int cellHeight) {
+        if (cellWidth != mCellWidth || cellHeight != mCellHeight) {
+            release();
+            mCellWidth = cellWidth;
+            mCellHeight = cellHeight;
+            if (cellWidth > 0 && cellHeight > 0 && cellWidth <= MAX_BITMAP_DIMENSION
+                    && cellHeight <= MAX_BITMAP_DIMENSION) {
+                mColumns = MAX_BITMAP_DIMENSION / cellWidth;
+                final int maxRows = MAX_BITMAP_DIMENSION / cellHeight;
+                mCapacity = Math.min(mMaxBytes / (cellWidth * cellHeight), mColumns * maxRows);
+            } else {
+                mColumns = 0;
+                mCapacity = 0;
+            }
+        }
+        return mCapacity > 0;
+    }
+
+    /**
+     * Drops all rendered labels, keeping the bitmap for reuse.
+     */
+    void clear() {
+        mNormalCells.clear();
+        mSelectedCells.clear();
+        mFreeCells.clear();
+        for (int cell = 0; cell < mCapacity; cell++) {
+            mFreeCells.add(cell);
+        }
+        if (mBitmap != null) {
+            mBitmap.eraseColor(0);
+        }
+    }
+
+    /**
+     * Drops all rendered labels and frees the bitmap.
+     */
+    void release() {
+        if (mBitmap != null) {
+            mBitmap.recycle();
+            mBitmap = null;
+            mCanvas = null;
+        }
+        mNormalCells.clear();
+        mSelectedCells.clear();
+        mFreeCells.clear();
+    }
+
+    /**
+     * @return The cell of the given label or -1 if it is not rendered yet.
+     */
+    int getCell(String label, boolean selected) {
+        final Integer cell = (selected ? mSelectedCells : mNormalCells).get(label);
+        return cell != null ? cell : -1;
+    }
+
+    /**
+     * Reserves a cell for the given label, evicting the least recently used
+     * one if needed, and prepares {@link #getCanvas()} for rendering into it.
+     * The canvas is clipped to the cell and translated to its origin, callers
+     * must call {@link #endRender()} once the label is rendered.
+     *
+     * @return The reserved cell or -1 if the atlas has no room.
+     */
+    int beginRender(String label, boolean selected) {
+        if (mCapacity == 0) {
+            return -1;
+        }
+        if (mBitmap == null) {
+            final int rows = (mCapacity + mColumns - 1) / mColumns;
+            final int columns = Math.min(mCapacity, mColumns);
+            mBitmap = Bitmap.createBitmap(columns * mCellWidth, rows * mCellHeight,
+                    Bitmap.Config.ALPHA_8);
+            mCanvas = new Canvas(mBitmap);
+            clear();
+        }
+        Integer cell = mFreeCells.poll();
+        if (cell == null) {
+            cell = evictEldest(selected ? mSelectedCells : mNormalCells);
+            if (cell == null) {
+                cell = evictEldest(selected ? mNormalCells : mSelectedCells);
+            }
+        }
+        (selected ? mSelectedCells : mNormalCells).put(label, cell);
+
+        final int left = (cell % mColumns) * mCellWidth;
+        final int top = (cell / mColumns) * mCellHeight;
+        mCanvas.save();
+        mCanvas.clipRect(left, top, left + mCellWidth, top + mCellHeight);
+        mCanvas.drawColor(0, PorterDuff.Mode.CLEAR);
+        mCanvas.translate(left, top);
+        return cell;
+    }
+
+    void endRender() {
+        mCanvas.restore();
+    }
+
+    Canvas getCanvas() {
+        return mCanvas;
+    }
+
+    /**
+     * @return A {@link Paint} for rendering into a cell, configured like
+     * <code>paint</code> but fully opaque.
+     */
+    Paint getRenderPaint(Paint paint) {
+        mRenderPaint.set(paint);
+        mRenderPaint.setColor(0xFF000000);
+        return mRenderPaint;
+    }
+
+    /**
+     * Blits the given cell with its top left corner at the given position,
+     * tinted with the color of <code>paint</code>.
+     */
+    void drawCell(Canvas canvas, int cell, float left, float top, Paint paint) {
+        final int srcLeft = (cell % mColumns) * mCellWidth;
+        final int srcTop = (cell / mColumns) * mCellHeight;
+        mSrcRect.set(srcLeft, srcTop, srcLeft + mCellWidth, srcTop + mCellHeight);
+        mDstRect.set(left, top, left + mCellWidth, top + mCellHeight);
+        mBlitPaint.setColor(paint.getColor());
+        canvas.drawBitmap(mBitmap, mSrcRect, mDstRect, mBlitPaint);
+    }
+
+    private static Integer evictEldest(LinkedHashMap<String, Integer> cells) {
+        final Iterator<Map.Entry<String, Integer>> iterator = cells.entrySet().iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        final Integer cell = iterator.next().getValue();
+        iterator.remove();
+        return cell;
+    }
+}
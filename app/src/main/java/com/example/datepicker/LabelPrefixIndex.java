@@ -0,0 +1,99 @@
+package com.example.datepicker;
+
+import java.util.Arrays;
+
+/**
+ * Index of the first label starting with a prefix, so typed text is matched
+ * against displayed values without scanning and lower casing all of them.
+ * <p>
+ * The labels are lower cased once into a trie whose nodes remember the
+ * first label passing through them. Looking up a lower case prefix then
+ * takes one child lookup per prefix char and allocates nothing.
+ * </p>
+ */
+final class LabelPrefixIndex {
+
+    private static final int NONE = -1;
+
+    /**
+     * The char leading to each node, the root has none.
+     */
+    private final char[] mNodeChars;
+
+    /**
+     * The first child of each node or {@link #NONE}.
+     */
+    private final int[] mFirstChild;
+
+    /**
+     * The next sibling of each node or {@link #NONE}.
+     */
+    private final int[] mNextSibling;
+
+    /**
+     * The index of the first label passing through each node.
+     */
+    private final int[] mFirstIndex;
+
+    LabelPrefixIndex(String[] labels) {
+        final String[] keys = new String[labels.length];
+        // the root plus at most one node per char
+        int capacity = 1;
+        for (int i = 0; i < labels.length; i++) {
+            keys[i] = labels[i].toLowerCase();
+            capacity += keys[i].length();
+        }
+        char[] nodeChars = new char[capacity];
+        int[] firstChild = new int[capacity];
+        int[] nextSibling = new int[capacity];
+        int[] firstIndex = new int[capacity];
+        Arrays.fill(firstChild, NONE);
+        Arrays.fill(nextSibling, NONE);
+        firstIndex[0] = labels.length > 0 ? 0 : NONE;
+        int nodeCount = 1;
+        for (int i = 0; i < keys.length; i++) {
+            final String key = keys[i];
+            int node = 0;
+            for (int j = 0; j < key.length(); j++) {
+                final char c = key.charAt(j);
+                int child = firstChild[node];
+                while (child != NONE && nodeChars[child] != c) {
+                    child = nextSibling[child];
+                }
+                if (child == NONE) {
+                    // labels are added in order, so the first one wins
+                    child = nodeCount++;
+                    nodeChars[child] = c;
+                    firstIndex[child] = i;
+                    nextSibling[child] = firstChild[node];
+                    firstChild[node] = child;
+                }
+                node = child;
+            }
+        }
+        mNodeChars = Arrays.copyOf(nodeChars, nodeCount);
+        mFirstChild = Arrays.copyOf(firstChild, nodeCount);
+        mNextSibling = Arrays.copyOf(nextSibling, nodeCount);
+        mFirstIndex = Arrays.copyOf(firstIndex, nodeCount);
+    }
+
+    /**
+     * @param prefix The lower case prefix.
+     * @return The index of the first label starting with the prefix or -1 if
+     * no label does.
+     */
+    int indexOf(String prefix) {
+        int node = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            final char c = prefix.charAt(i);
+            node = mFirstChild[node];
+            while (node != NONE && mNodeChars[node] != c) {
+                node = mNextSibling[node];
+            }
+            if (node == NONE) {
+                return -1;
+            }
+        }
+        return mFirstIndex[node];
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.datepicker;
+
+import android.content.Context;
+import android.graphics.Paint;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.text.PrecomputedText;
+import android.text.TextDirectionHeuristics;
+import android.text.TextPaint;
+
+import androidx.annotation.RequiresApi;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Prepares labels of a {@link NumberPicker} on a background thread, so the
+ * main thread does not have to format and measure them before the first
+ * frame.
+ * <p>
+ * A preparation formats the labels of a range of values, measures the max
+ * width of the label set if requested and, on API 28 and above, shapes the
+ * single-line labels into {@link PrecomputedText}. The results are handed
+ * back to the picker on the main thread, which drops them if its labels
+ * changed in the meantime. All preparations, including the preloading of
+ * the locale data of date pickers, share a single background thread.
+ * </p>
+ */
+final class LabelPreparer implements Runnable {
+
+    private static Executor sExecutor;
+
+    private static Handler sMainHandler;
+
+    /**
+     * The picker to hand the results to.
+     */
+    private final NumberPicker mPicker;
+
+    /**
+     * The label generation of the picker the preparation was started in.
+     */
+    final int mGeneration;
+
+    /**
+     * The text style generation of the picker the labels are shaped with.
+     */
+    final int mStyleGeneration;
+
+    /**
+     * The locale epoch the labels are formatted in.
+     */
+    final int mEpoch;
+
+    /**
+     * The min value of the picker the preparation was started with.
+     */
+    final int mMinValue;
+
+    /**
+     * The max value of the picker the preparation was started with.
+     */
+    final int mMaxValue;
+
+    /**
+     * The first prepared value.
+     */
+    final int mFirstValue;
+
+    /**
+     * The values to be displayed instead the indices.
+     */
+    private final String[] mDisplayedValues;
+
+    /**
+     * The formatter of the values, <code>null</code> to format them with the
+     * number format of {@link #mLocale}.
+     */
+    private final NumberPicker.Formatter mFormatter;
+
+    /**
+     * The locale the values are formatted in without a formatter.
+     */
+    private final Locale mLocale;
+
+    /**
+     * The paint the labels are drawn with.
+     */
+    private final Paint mTextPaint;
+
+    /**
+     * The paint the max width is measured with, <code>null</code> if the max
+     * width is not measured.
+     */
+    final Paint mMeasurePaint;
+
+    /**
+     * The prepared labels, starting at the first prepared value.
+     */
+    final NumberPicker.SelectorLabel[] mLabels;
+
+    /**
+     * The measured label set as defined by {@link TextWidthCache}, null if
+     * the max width was not measured.
+     */
+    Object mLabelSet;
+
+    /**
+     * The max width of the measured label set.
+     */
+    float mMaxWidth;
+
+    LabelPreparer(NumberPicker picker, int generation, int styleGeneration, int minValue,
+                  int maxValue, int firstValue, int lastValue, String[] displayedValues,
+                  NumberPicker.Formatter formatter, Paint textPaint, Paint measurePaint) {
+        mPicker = picker;
+        mGeneration = generation;
+        mStyleGeneration = styleGeneration;
+        mEpoch = LocaleRegistry.getEpoch();
+        mMinValue = minValue;
+        mMaxValue = maxValue;
+        mFirstValue = firstValue;
+        mDisplayedValues = displayedValues;
+        mFormatter = formatter;
+        mLocale = Locale.getDefault();
+        // the paints of the picker may change while preparing
+        mTextPaint = new Paint(textPaint);
+        mMeasurePaint = measurePaint != null ? new Paint(measurePaint) : null;
+        mLabels = new NumberPicker.SelectorLabel[lastValue - firstValue + 1];
+    }
+
+    /**
+     * Starts the preparation on the background thread.
+     */
+    void start() {
+        getExecutor().execute(this);
+    }
+
+    @Override
+    public void run() {
+        final boolean traced = PickerTrace.beginSection("NumberPicker.prepareLabels");
+        try {
+            final NumberFormat numberFormat = mFormatter == null && mDisplayedValues == null
+                    ? NumberFormat.getInstance(mLocale) : null;
+            for (int i = 0; i < mLabels.length; i++) {
+                final String text = formatValue(mFirstValue + i, numberFormat);
+                if (text != null) {
+                    mLabels[i] = new NumberPicker.SelectorLabel(text);
+                }
+            }
+            if (mMeasurePaint != null) {
+                measureMaxWidth(numberFormat);
+            }
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+                precomputeLabels();
+            }
+        } finally {
+            PickerTrace.endSection(traced);
+        }
+        getMainHandler().post(new Runnable() {
+            @Override
+            public void run() {
+                mPicker.onLabelsPrepared(LabelPreparer.this);
+            }
+        });
+    }
+
+    /**
+     * @return The text of the given value like the picker formats it or
+     * <code>null</code> if there is no displayed value for it.
+     */
+    private String formatValue(int value, NumberFormat numberFormat) {
+        if (mDisplayedValues != null) {
+            final int displayedValueIndex = value - mMinValue;
+            return displayedValueIndex < mDisplayedValues.length
+                    ? mDisplayedValues[displayedValueIndex] : null;
+        }
+        return mFormatter != null ? mFormatter.format(value) : numberFormat.format(value);
+    }
+
+    /**
+     * Measures the max width of the displayed values or the widest digit,
+     * the same way the picker computes its max width.
+     */
+    private void measureMaxWidth(NumberFormat numberFormat) {
+        float maxWidth = 0;
+        if (mDisplayedValues != null) {
+            mLabelSet = TextWidthCache.labelSet(mDisplayedValues);
+            for (String displayedValue : mDisplayedValues) {
+                maxWidth = Math.max(maxWidth, (int) mMeasurePaint.measureText(displayedValue));
+            }
+        } else {
+            mLabelSet = mFormatter != null
+                    ? TextWidthCache.digitSet(mFormatter) : TextWidthCache.LOCALE_DIGITS;
+            for (int i = 0; i <= 9; i++) {
+                maxWidth = Math.max(maxWidth, mMeasurePaint.measureText(
+                        mFormatter != null ? mFormatter.format(i) : numberFormat.format(i)));
+            }
+        }
+        mMaxWidth = maxWidth;
+    }
+
+    /**
+     * Shapes the single-line labels with the text paint.
+     */
+    @RequiresApi(Build.VERSION_CODES.P)
+    private void precomputeLabels() {
+        final PrecomputedText.Params params =
+                new PrecomputedText.Params.Builder(new TextPaint(mTextPaint)).build();
+        for (NumberPicker.SelectorLabel label : mLabels) {
+            if (label == null || label.mLineEnds != null || label.isEmpty()) {
+                continue;
+            }
+            label.mPrecomputedText = PrecomputedText.create(label.getText(), params);
+            label.mPrecomputedRtl = TextDirectionHeuristics.FIRSTSTRONG_LTR.isRtl(
+                    label.mChars, 0, label.mChars.length);
+            label.mPrecomputedStyle = mStyleGeneration;
+        }
+    }
+
+    /**
+     * Loads the locale data used by the pickers into the {@link LocaleRegistry}
+     * on the background thread.
+     */
+    static void prepareLocaleData(final Context context, final Locale locale) {
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final boolean traced = PickerTrace.beginSection("DatePicker.prepareLocaleData");
+                try {
+                    LocaleRegistry.getShortMonths(locale);
+                    LocaleRegistry.getZeroDigit(locale);
+                    try {
+                        LocaleRegistry.getDateFormatOrder(context, locale);
+                    } catch (IllegalArgumentException e) {
+                        // the picker falls back to its default order
+                    }
+                } finally {
+                    PickerTrace.endSection(traced);
+                }
+            }
+        });
+    }
+
+    private static synchronized Executor getExecutor() {
+        if (sExecutor == null) {
+            sExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            runnable.run();
+                        }
+                    }, "PickerLabelPreparer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return sExecutor;
+    }
+
+    private static synchronized Handler getMainHandler() {
+        if (sMainHandler == null) {
+            sMainHandler = new Handler(Looper.getMainLooper());
+        }
+        return sMainHandler;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.datepicker;
+
+import android.graphics.RenderNode;
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of {@link RenderNode}s each holding the recorded drawing of one label
+ * of a {@link NumberPicker} wheel.
+ * <p>
+ * A label is recorded once and afterwards only positioned through the
+ * translation of its node, so moving the wheel does not re-record any text.
+ * The cache is bounded and discards the least recently used nodes.
+ * </p>
+ */
+@RequiresApi(Build.VERSION_CODES.Q)
+final class LabelRenderNodes {
+
+    /**
+     * The default max number of cached nodes per text style.
+     */
+    static final int DEFAULT_MAX_NODES = 32;
+
+    /**
+     * The nodes of labels drawn with the normal style, in access order.
+     */
+    private final NodeMap mNormalNodes;
+
+    /**
+     * The nodes of labels drawn with the selected style, in access order.
+     */
+    private final NodeMap mSelectedNodes;
+
+    /**
+     * The number of the current frame.
+     */
+    private long mFrame;
+
+    LabelRenderNodes(int maxNodes) {
+        mNormalNodes = new NodeMap(maxNodes);
+        mSelectedNodes = new NodeMap(maxNodes);
+    }
+
+    /**
+     * Starts a new frame, every node can be drawn once per frame.
+     */
+    void beginFrame() {
+        mFrame++;
+    }
+
+    /**
+     * Obtains the node of the given label, creating an empty one if needed.
+     * Callers have to record the label if the node has no display list.
+     *
+     * @return The node or <code>null</code> if it is already drawn in the
+     * current frame.
+     */
+    RenderNode obtain(String label, boolean selected) {
+        final NodeMap nodes = selected ? mSelectedNodes : mNormalNodes;
+        Entry entry = nodes.get(label);
+        if (entry == null) {
+            entry = new Entry(new RenderNode(label));
+            nodes.put(label, entry);
+        } else if (entry.mFrame == mFrame) {
+            return null;
+        }
+        entry.mFrame = mFrame;
+        return entry.mNode;
+    }
+
+    /**
+     * Discards all nodes.
+     */
+    void clear() {
+        mNormalNodes.discardAll();
+        mSelectedNodes.discardAll();
+    }
+
+    private static final class Entry {
+        final RenderNode mNode;
+        long mFrame = -1;
+
+        Entry(RenderNode node) {
+            mNode = node;
+        }
+    }
+
+    private static final class NodeMap extends LinkedHashMap<String, Entry> {
+        private final int mMaxNodes;
+
+        NodeMap(int maxNodes) {
+            super(16, 0.75f, true);
+            mMaxNodes = maxNodes;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > mMaxNodes) {
+                eldest.getValue().mNode.discardDisplayList();
+                return true;
+            }
+            return false;
+        }
+
+        void discardAll() {
+            for (Entry entry : values()) {
+                entry.mNode.discardDisplayList();
+            }
+            clear();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.datepicker;
+
+import android.content.Context;
+import android.os.Build;
+import android.text.format.DateFormat;
+
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * Process-wide cache of the locale dependent data used by the pickers, so
+ * it is looked up once per locale instead of once per picker or per call.
+ * <p>
+ * The registry tracks the current locale through a locale epoch. The epoch
+ * is bumped and all cached data dropped once a picker sees a new locale in
+ * <code>onConfigurationChanged</code>. Holders of data derived from the
+ * locale compare their epoch with {@link #getEpoch()} to find out whether
+ * they are stale. All data is derived from the locale it is cached for,
+ * never from the default resources, so it matches its key whichever locale
+ * is current.
+ * </p>
+ */
+final class LocaleRegistry {
+
+    private static final HashMap<Locale, Character> sZeroDigits = new HashMap<>();
+
+    private static final HashMap<Locale, NumberFormat> sNumberFormats = new HashMap<>();
+
+    private static final HashMap<Locale, String[]> sShortMonths = new HashMap<>();
+
+    private static final HashMap<Locale, char[]> sDateFormatOrders = new HashMap<>();
+
+    /**
+     * The locale of the current epoch.
+     */
+    private static Locale sLocale = Locale.getDefault();
+
+    /**
+     * The current locale epoch.
+     */
+    private static volatile int sEpoch;
+
+    private LocaleRegistry() {
+    }
+
+    static int getEpoch() {
+        return sEpoch;
+    }
+
+    /**
+     * Starts a new epoch if the given locale differs from the locale of the
+     * current epoch, dropping all cached data.
+     *
+     * @return True if a new epoch started.
+     */
+    static synchronized boolean onLocaleChanged(Locale locale) {
+        if (locale == null || locale.equals(sLocale)) {
+            return false;
+        }
+        sLocale = locale;
+        sZeroDigits.clear();
+        sNumberFormats.clear();
+        sShortMonths.clear();
+        sDateFormatOrders.clear();
+        sEpoch++;
+        return true;
+    }
+
+    /**
+     * @return The zero digit of the given locale.
+     */
+    static synchronized char getZeroDigit(Locale locale) {
+        Character zeroDigit = sZeroDigits.get(locale);
+        if (zeroDigit == null) {
+            zeroDigit = new DecimalFormatSymbols(locale).getZeroDigit();
+            sZeroDigits.put(locale, zeroDigit);
+        }
+        return zeroDigit;
+    }
+
+    /**
+     * @return The shared number format of the given locale. As number formats
+     * are not thread safe, it must only be used on the main thread.
+     */
+    static synchronized NumberFormat getNumberFormat(Locale locale) {
+        NumberFormat numberFormat = sNumberFormats.get(locale);
+        if (numberFormat == null) {
+            numberFormat = NumberFormat.getInstance(locale);
+            sNumberFormats.put(locale, numberFormat);
+        }
+        return numberFormat;
+    }
+
+    /**
+     * @return The shared medium length month names of the given locale, which
+     * must not be modified.
+     */
+    static synchronized String[] getShortMonths(Locale locale) {
+        String[] shortMonths = sShortMonths.get(locale);
+        if (shortMonths == null) {
+            final Calendar calendar = Calendar.getInstance(locale);
+            final int numberOfMonths = calendar.getActualMaximum(Calendar.MONTH) + 1;
+            // the stand-alone form, like DateUtils.LENGTH_MEDIUM month strings
+            final SimpleDateFormat format = new SimpleDateFormat("LLL", locale);
+            format.setTimeZone(calendar.getTimeZone());
+            calendar.set(Calendar.DAY_OF_MONTH, 1);
+            shortMonths = new String[numberOfMonths];
+            for (int i = 0; i < numberOfMonths; i++) {
+                calendar.set(Calendar.MONTH, Calendar.JANUARY + i);
+                shortMonths[i] = format.format(calendar.getTime());
+            }
+            sShortMonths.put(locale, shortMonths);
+        }
+        return shortMonths;
+    }
+
+    /**
+     * @return The shared date format order of the given locale, which must
+     * not be modified. Below API 18 the order follows the date format
+     * setting of the user instead, which is read on every call.
+     * @throws IllegalArgumentException If the date format is invalid.
+     * @see DateFormat#getDateFormatOrder(Context)
+     */
+    static char[] getDateFormatOrder(Context context, Locale locale) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            return DateFormat.getDateFormatOrder(context);
+        }
+        synchronized (LocaleRegistry.class) {
+            char[] order = sDateFormatOrders.get(locale);
+            if (order == null) {
+                // the pattern the platform date picker orders its spinners by
+                order = parseDateFormatOrder(
+                        DateFormat.getBestDateTimePattern(locale, "yyyyMMMdd"));
+                sDateFormatOrders.put(locale, order);
+            }
+            return order;
+        }
+    }
+
+    /**
+     * @return The order of the day, month and year fields of the given date
+     * pattern, e.g. <code>{'d', 'M', 'y'}</code>.
+     * @throws IllegalArgumentException If a field is missing.
+     */
+    static char[] parseDateFormatOrder(String pattern) {
+        final char[] order = new char[3];
+        int count = 0;
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+                continue;
+            }
+            if (quoted) {
+                continue;
+            }
+            if (c == 'L') {
+                c = 'M';
+            }
+            if ((c == 'd' || c == 'M' || c == 'y') && !contains(order, count, c)) {
+                order[count++] = c;
+            }
+        }
+        if (count != order.length) {
+            throw new IllegalArgumentException("Bad pattern '" + pattern + "'");
+        }
+        return order;
+    }
+
+    private static boolean contains(char[] chars, int count, char c) {
+        for (int i = 0; i < count; i++) {
+            if (chars[i] == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
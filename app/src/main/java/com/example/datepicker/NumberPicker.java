@@ -6,6 +6,8 @@ import android.content.res.Configuration;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RenderNode;
 import android.graphics.Typeface;
 import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
@@ -18,6 +20,8 @@ import android.util.AttributeSet;
 import android.util.DisplayMetrics;
 import android.util.SparseArray;
 import android.util.TypedValue;
+import android.view.Choreographer;
+import android.view.Display;
 import android.view.KeyEvent;
 import android.view.LayoutInflater;
 import android.view.LayoutInflater.Filter;
@@ -37,12 +41,13 @@ import androidx.annotation.ColorInt;
 import androidx.annotation.ColorRes;
 import androidx.annotation.DimenRes;
 import androidx.annotation.IntDef;
+import androidx.annotation.RequiresApi;
 import androidx.annotation.StringRes;
 import androidx.core.content.ContextCompat;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
+import java.util.Arrays;
 import java.util.Locale;
 
 import static java.lang.annotation.RetentionPolicy.SOURCE;
@@ -81,6 +86,23 @@ public class NumberPicker extends LinearLayout {
     public static final int SIDE_LINES = 0;
     public static final int UNDERLINE = 1;
 
+    @Retention(SOURCE)
+    @IntDef({FADE_EDGES, FADE_ALPHA})
+    public @interface FadeMode {
+    }
+
+    public static final int FADE_EDGES = 0;
+    public static final int FADE_ALPHA = 1;
+
+    @Retention(SOURCE)
+    @IntDef({NOTIFY_EVERY_STEP, NOTIFY_PER_FRAME, NOTIFY_ON_SETTLE})
+    public @interface NotifyPolicy {
+    }
+
+    public static final int NOTIFY_EVERY_STEP = 0;
+    public static final int NOTIFY_PER_FRAME = 1;
+    public static final int NOTIFY_ON_SETTLE = 2;
+
     /**
      * The default update interval during long press.
      */
@@ -121,11 +143,26 @@ public class NumberPicker extends LinearLayout {
      */
     private static final int SIZE_UNSPECIFIED = -1;
 
+    /**
+     * The max size of the hardware layer used while scrolling, in bytes.
+     */
+    private static final long MAX_SCROLL_LAYER_BYTES = 4 * 1024 * 1024;
+
     /**
      * The default color of divider.
      */
     private static final int DEFAULT_DIVIDER_COLOR = 0xFF000000;
 
+    /**
+     * The default max number of cached selector labels.
+     */
+    private static final int DEFAULT_LABEL_CACHE_SIZE = 64;
+
+    /**
+     * The default max range for which all selector labels are formatted up front.
+     */
+    private static final int DEFAULT_LABEL_TABLE_THRESHOLD = 512;
+
     /**
      * The default max value of this widget.
      */
@@ -174,52 +211,195 @@ public class NumberPicker extends LinearLayout {
      */
     private static final float DEFAULT_LINE_SPACING_MULTIPLIER = 1f;
 
+    /**
+     * The padding between a label and the edge of its label atlas cell.
+     */
+    private static final int LABEL_ATLAS_CELL_PADDING = 2;
+
+    /**
+     * The text aligns of {@link Paint}, indexed by {@link Align}.
+     */
+    private static final Paint.Align[] PAINT_ALIGNS = Paint.Align.values();
+
     /**
      * Use a custom NumberPicker formatting callback to use two-digit minutes
-     * strings like "01". Keeping a static formatter etc. is the most efficient
-     * way to do this; it avoids creating temporary objects on every call to
-     * format().
+     * strings like "01". The formatter holds no per call state, so it is
+     * shared and safe to use from any thread.
+     */
+    private static final PaddedIntFormatter sTwoDigitFormatter = new PaddedIntFormatter(2);
+
+    /**
+     * A label of the selector wheel along with its line breakdown, so drawing
+     * a multi-line label neither splits nor measures it.
      */
-    private static class TwoDigitFormatter implements Formatter {
-        final StringBuilder mBuilder = new StringBuilder();
+    static final class SelectorLabel {
+        /**
+         * The chars of the label, drawn without going through a string.
+         */
+        final char[] mChars;
+
+        /**
+         * The end index of each line, <code>null</code> for single-line labels.
+         */
+        final int[] mLineEnds;
+
+        /**
+         * The access stamp of the label in the {@link SelectorLabelCache}.
+         */
+        int mLastAccess;
+
+        /**
+         * The label as string, created on demand.
+         */
+        private String mText;
+
+        /**
+         * The label shaped by a {@link LabelPreparer}, <code>null</code> if it
+         * was not prepared.
+         */
+        CharSequence mPrecomputedText;
 
-        char mZeroDigit;
-        java.util.Formatter mFmt;
+        /**
+         * Whether the shaped label runs right to left.
+         */
+        boolean mPrecomputedRtl;
 
-        final Object[] mArgs = new Object[1];
+        /**
+         * The text style generation the label was shaped with.
+         */
+        int mPrecomputedStyle;
 
-        TwoDigitFormatter() {
-            final Locale locale = Locale.getDefault();
-            init(locale);
+        SelectorLabel(String text) {
+            this(text.toCharArray());
+            mText = text;
         }
 
-        private void init(Locale locale) {
-            mFmt = createFormatter(locale);
-            mZeroDigit = getZeroDigit(locale);
+        SelectorLabel(char[] chars) {
+            mChars = chars;
+            int lineCount = 1;
+            for (char c : chars) {
+                if (c == '\n') {
+                    lineCount++;
+                }
+            }
+            if (lineCount == 1) {
+                mLineEnds = null;
+            } else {
+                mLineEnds = new int[lineCount];
+                int line = 0;
+                for (int i = 0; i < chars.length; i++) {
+                    if (chars[i] == '\n') {
+                        mLineEnds[line++] = i;
+                    }
+                }
+                mLineEnds[line] = chars.length;
+            }
         }
 
-        public String format(int value) {
-            final Locale currentLocale = Locale.getDefault();
-            if (mZeroDigit != getZeroDigit(currentLocale)) {
-                init(currentLocale);
+        String getText() {
+            if (mText == null) {
+                mText = new String(mChars);
             }
-            mArgs[0] = value;
-            mBuilder.delete(0, mBuilder.length());
-            mFmt.format("%02d", mArgs);
-            return mFmt.toString();
+            return mText;
+        }
+
+        boolean isEmpty() {
+            return mChars.length == 0;
+        }
+
+        int getLineCount() {
+            return mLineEnds == null ? 1 : mLineEnds.length;
         }
 
-        private static char getZeroDigit(Locale locale) {
-            // return LocaleData.get(locale).zeroDigit;
-            return new DecimalFormatSymbols(locale).getZeroDigit();
+        int getLineStart(int line) {
+            return line == 0 ? 0 : mLineEnds[line - 1] + 1;
         }
 
-        private java.util.Formatter createFormatter(Locale locale) {
-            return new java.util.Formatter(mBuilder, locale);
+        int getLineEnd(int line) {
+            return mLineEnds == null ? mChars.length : mLineEnds[line];
         }
     }
 
-    private static final TwoDigitFormatter sTwoDigitFormatter = new TwoDigitFormatter();
+    /**
+     * Cache of the labels of selector indices, bounded by evicting the least
+     * recently used label. Labels are looked up by value and stay cached
+     * across value changes, so scrolling only formats values it has not
+     * shown before.
+     */
+    private static final class SelectorLabelCache {
+        private final SparseArray<SelectorLabel> mLabels = new SparseArray<>();
+        private int mMaxSize;
+        private int mAccessStamp;
+        private long mHitCount;
+        private long mMissCount;
+
+        SelectorLabelCache(int maxSize) {
+            mMaxSize = maxSize;
+        }
+
+        void setMaxSize(int maxSize) {
+            mMaxSize = maxSize;
+            while (mLabels.size() > maxSize) {
+                evictEldest();
+            }
+        }
+
+        /**
+         * @return The label of the given index, without counting the access.
+         */
+        SelectorLabel peek(int selectorIndex) {
+            return mLabels.get(selectorIndex);
+        }
+
+        /**
+         * @return The label of the given index, counting the access as a hit
+         * or a miss.
+         */
+        SelectorLabel get(int selectorIndex) {
+            final SelectorLabel label = mLabels.get(selectorIndex);
+            if (label == null) {
+                mMissCount++;
+            } else {
+                mHitCount++;
+                label.mLastAccess = ++mAccessStamp;
+            }
+            return label;
+        }
+
+        void put(int selectorIndex, SelectorLabel label) {
+            if (mLabels.size() >= mMaxSize && mLabels.indexOfKey(selectorIndex) < 0) {
+                evictEldest();
+            }
+            label.mLastAccess = ++mAccessStamp;
+            mLabels.put(selectorIndex, label);
+        }
+
+        void clear() {
+            mLabels.clear();
+        }
+
+        int size() {
+            return mLabels.size();
+        }
+
+        long getHitCount() {
+            return mHitCount;
+        }
+
+        long getMissCount() {
+            return mMissCount;
+        }
+
+        private void evictEldest() {
+            int eldest = 0;
+            for (int i = 1; i < mLabels.size(); i++) {
+                if (mLabels.valueAt(i).mLastAccess - mLabels.valueAt(eldest).mLastAccess < 0) {
+                    eldest = i;
+                }
+            }
+            mLabels.removeAt(eldest);
+        }
+    }
 
     public static Formatter getTwoDigitFormatter() {
         return sTwoDigitFormatter;
@@ -265,6 +445,18 @@ public class NumberPicker extends LinearLayout {
      */
     private final boolean mComputeMaxWidth;
 
+    /**
+     * The width of the widest provided label measured so far, without a
+     * width hint of the provider.
+     */
+    private int mProvidedLabelMaxWidth;
+
+    /**
+     * Flag whether a provided label wider than the max width came into view,
+     * the picker is widened once the wheel settles.
+     */
+    private boolean mMaxWidthGrowPending;
+
     /**
      * The align of the selected text.
      */
@@ -340,6 +532,50 @@ public class NumberPicker extends LinearLayout {
      */
     private String[] mDisplayedValues;
 
+    /**
+     * The provider of the labels to be displayed instead the indices.
+     */
+    private ValueLabelProvider mValueLabelProvider;
+
+    /**
+     * The index of the displayed values matched against typed text, built on
+     * demand.
+     */
+    private LabelPrefixIndex mLabelPrefixIndex;
+
+    /**
+     * The nesting depth of {@link #beginUpdate()} calls.
+     */
+    private int mUpdateDepth;
+
+    /**
+     * Flag whether a batched update has to refresh the picker once it ends.
+     */
+    private boolean mUpdatePending;
+
+    /**
+     * Flag whether a value was set in the current batched update.
+     */
+    private boolean mHasPendingValue;
+
+    /**
+     * The value last set in the current batched update, resolved against the
+     * final range once the update ends.
+     */
+    private int mPendingValue;
+
+    /**
+     * The generation of the labels, results of label preparations started in
+     * an older generation are dropped.
+     */
+    private int mLabelPrepareGeneration;
+
+    /**
+     * The generation of the text style, labels shaped in an older generation
+     * are drawn as plain text.
+     */
+    private int mLabelStyleGeneration;
+
     /**
      * Lower value of the range of numbers allowed for the NumberPicker
      */
@@ -370,6 +606,52 @@ public class NumberPicker extends LinearLayout {
      */
     private OnScrollListener mOnScrollListener;
 
+    /**
+     * The name of the trace counter of the current value.
+     */
+    private String mValueCounterName;
+
+    /**
+     * The name of the trace counter of the label cache size.
+     */
+    private String mLabelCacheSizeCounterName;
+
+    /**
+     * The sampler reporting to the performance listener.
+     */
+    private final PerformanceSampler mPerformanceSampler = new PerformanceSampler(this);
+
+    /**
+     * The time of the sampled touch release, {@link PerformanceSampler#NOT_SAMPLED}
+     * if there is none.
+     */
+    private long mTouchUpNanos = PerformanceSampler.NOT_SAMPLED;
+
+    /**
+     * Flag whether the current fling is sampled.
+     */
+    private boolean mFlingSampled;
+
+    /**
+     * The number of frames of the sampled fling.
+     */
+    private int mFlingFrameCount;
+
+    /**
+     * The number of slow frames of the sampled fling.
+     */
+    private int mFlingSlowFrameCount;
+
+    /**
+     * The time of the last frame of the sampled fling.
+     */
+    private long mLastFlingFrameNanos;
+
+    /**
+     * The frame interval above which a frame of the sampled fling is slow.
+     */
+    private long mSlowFrameNanos;
+
     /**
      * Formatter for for displaying the current value.
      */
@@ -381,9 +663,42 @@ public class NumberPicker extends LinearLayout {
     private long mLongPressUpdateInterval = DEFAULT_LONG_PRESS_UPDATE_INTERVAL;
 
     /**
-     * Cache for the string representation of selector indices.
+     * Cache for the labels of selector indices.
+     */
+    private final SelectorLabelCache mSelectorLabelCache =
+            new SelectorLabelCache(DEFAULT_LABEL_CACHE_SIZE);
+
+    /**
+     * The labels of the whole range indexed from the min value,
+     * <code>null</code> if not built yet or the range is too large.
+     */
+    private SelectorLabel[] mLabelTable;
+
+    /**
+     * The label table of the previous range, whose labels are taken over by
+     * the table of the current range once it is built.
+     */
+    private SelectorLabel[] mPreviousLabelTable;
+
+    /**
+     * The min value {@link #mPreviousLabelTable} is indexed from.
+     */
+    private int mPreviousLabelTableMin;
+
+    /**
+     * The max range for which {@link #mLabelTable} is built.
+     */
+    private int mLabelTableThreshold = DEFAULT_LABEL_TABLE_THRESHOLD;
+
+    /**
+     * The buffer labels are formatted into by a {@link CharFormatter}.
      */
-    private final SparseArray<String> mSelectorIndexToStringCache = new SparseArray<>();
+    private char[] mFormatBuffer;
+
+    /**
+     * The locale epoch the cached labels were formatted in.
+     */
+    private int mLabelLocaleEpoch = LocaleRegistry.getEpoch();
 
     /**
      * The number of items show in the selector wheel.
@@ -401,15 +716,72 @@ public class NumberPicker extends LinearLayout {
     private int mWheelMiddleItemIndex = mWheelItemCount / 2;
 
     /**
-     * The selector indices whose value are show by the selector.
+     * The selector indices whose value are show by the selector, stored as a
+     * ring buffer starting at {@link #mSelectorIndicesHead}.
      */
     private int[] mSelectorIndices = new int[mWheelItemCount];
 
+    /**
+     * The position in {@link #mSelectorIndices} of the first selector index.
+     */
+    private int mSelectorIndicesHead;
+
     /**
      * The {@link Paint} for drawing the selector.
      */
     private final Paint mSelectorWheelPaint;
 
+    /**
+     * The {@link Paint} for drawing the selected item of the selector.
+     */
+    private final Paint mSelectedSelectorWheelPaint;
+
+    /**
+     * The reusable font metrics for measuring the selector wheel paints.
+     */
+    private final Paint.FontMetrics mFontMetrics = new Paint.FontMetrics();
+
+    /**
+     * The offset of the text baseline from the center of a selector element.
+     */
+    private float mTextCenterYOffset;
+
+    /**
+     * The offset of the selected text baseline from the center of a selector element.
+     */
+    private float mSelectedTextCenterYOffset;
+
+    /**
+     * The distance between the baselines of multi-line text.
+     */
+    private float mTextLineHeight;
+
+    /**
+     * The distance between the baselines of multi-line selected text.
+     */
+    private float mSelectedTextLineHeight;
+
+    /**
+     * The atlas of pre-rendered labels, <code>null</code> if the atlas is disabled.
+     */
+    private LabelAtlas mLabelAtlas;
+
+    /**
+     * The memory budget of the label atlas in bytes.
+     */
+    private int mLabelAtlasMaxBytes = LabelAtlas.DEFAULT_MAX_BYTES;
+
+    /**
+     * The render nodes of recorded labels, <code>null</code> if render node
+     * caching is disabled or not supported.
+     */
+    private LabelRenderNodes mLabelRenderNodes;
+
+    /**
+     * Flag whether render node caching is requested.
+     */
+    private boolean mRenderNodeCachingEnabled;
+
     /**
      * The size of a selector element (text + gap).
      */
@@ -425,6 +797,26 @@ public class NumberPicker extends LinearLayout {
      */
     private int mCurrentScrollOffset;
 
+    /**
+     * The offset of the scroll selector when it was drawn last.
+     */
+    private int mDrawnScrollOffset;
+
+    /**
+     * The band of the selector wheel to invalidate.
+     */
+    private final Rect mWheelBand = new Rect();
+
+    /**
+     * Flag whether invalidating the selector wheel is deferred.
+     */
+    private boolean mDeferWheelInvalidation;
+
+    /**
+     * Flag whether the selector wheel was invalidated while deferred.
+     */
+    private boolean mWheelInvalidationPending;
+
     /**
      * The {@link Scroller} responsible for flinging the selector.
      */
@@ -560,6 +952,63 @@ public class NumberPicker extends LinearLayout {
      */
     private int mScrollState = OnScrollListener.SCROLL_STATE_IDLE;
 
+    /**
+     * Flag whether the value of a fling is resolved once the wheel settles
+     * instead of on every item passed.
+     */
+    private boolean mFlingValueDeferred = true;
+
+    /**
+     * Flag whether the wheel moved by a fling without resolving the value.
+     */
+    private boolean mValueDeferred;
+
+    /**
+     * The signed number of steps the wheel moved by without resolving the
+     * value.
+     */
+    private int mDeferredValueSteps;
+
+    /**
+     * The signed number of steps of the last value change.
+     */
+    private int mValueChangeSteps;
+
+    /**
+     * When the {@link OnValueChangeListener} is notified of value changes.
+     */
+    private int mNotifyPolicy = NOTIFY_EVERY_STEP;
+
+    /**
+     * Flag whether coalesced value changes wait to be notified.
+     */
+    private boolean mChangePending;
+
+    /**
+     * The value before the first of the coalesced value changes.
+     */
+    private int mPendingOldValue;
+
+    /**
+     * The value after the last of the coalesced value changes.
+     */
+    private int mPendingNewValue;
+
+    /**
+     * The summed steps of the coalesced value changes.
+     */
+    private int mPendingSteps;
+
+    /**
+     * Notifies the coalesced value changes on the next frame.
+     */
+    private Choreographer.FrameCallback mNotifyFrameCallback;
+
+    /**
+     * Flag whether {@link #mNotifyFrameCallback} is posted.
+     */
+    private boolean mNotifyFramePosted;
+
     /**
      * The keycode of the last handled DPAD down event.
      */
@@ -591,37 +1040,69 @@ public class NumberPicker extends LinearLayout {
     private float mFadingEdgeStrength = DEFAULT_FADING_EDGE_STRENGTH;
 
     /**
-     * Flag whether the scroller should enabled.
+     * How the selector wheel fades towards its edges.
      */
-    private boolean mScrollerEnabled = true;
+    private int mFadeMode = FADE_EDGES;
 
     /**
-     * The line spacing multiplier of the text.
+     * The alpha of a label by the distance of its slot center from the wheel
+     * center, <code>null</code> if labels are not faded by alpha.
      */
-    private float mLineSpacingMultiplier = DEFAULT_LINE_SPACING_MULTIPLIER;
+    private int[] mFadeAlphas;
 
     /**
-     * The coefficient to adjust (divide) the max fling velocity.
+     * Flag whether the scroller should enabled.
      */
-    private int mMaxFlingVelocityCoefficient = DEFAULT_MAX_FLING_VELOCITY_COEFFICIENT;
+    private boolean mScrollerEnabled = true;
 
     /**
-     * Flag whether the accessibility description enabled.
+     * Flag whether the selector wheel is drawn curved like a cylinder.
      */
-    private boolean mAccessibilityDescriptionEnabled = true;
+    private boolean mCurvedWheelEnabled;
 
     /**
-     * The context of this widget.
+     * The transforms of the curved selector wheel, <code>null</code> if the
+     * wheel is flat.
      */
-    private final Context mContext;
+    private CurvedWheelTransforms mCurvedWheelTransforms;
 
     /**
-     * The number formatter for current locale.
+     * Flag whether the picker is drawn into a hardware layer while scrolling.
      */
-    private NumberFormat mNumberFormatter;
+    private boolean mScrollHardwareLayerEnabled;
 
     /**
-     * The view configuration of this widget.
+     * Flag whether the picker is currently promoted to a hardware layer for scrolling.
+     */
+    private boolean mScrollHardwareLayerPromoted;
+
+    /**
+     * The line spacing multiplier of the text.
+     */
+    private float mLineSpacingMultiplier = DEFAULT_LINE_SPACING_MULTIPLIER;
+
+    /**
+     * The coefficient to adjust (divide) the max fling velocity.
+     */
+    private int mMaxFlingVelocityCoefficient = DEFAULT_MAX_FLING_VELOCITY_COEFFICIENT;
+
+    /**
+     * Flag whether the accessibility description enabled.
+     */
+    private boolean mAccessibilityDescriptionEnabled = true;
+
+    /**
+     * The context of this widget.
+     */
+    private final Context mContext;
+
+    /**
+     * The number formatter for current locale.
+     */
+    private NumberFormat mNumberFormatter;
+
+    /**
+     * The view configuration of this widget.
      */
     private final ViewConfiguration mViewConfiguration;
 
@@ -696,6 +1177,88 @@ public class NumberPicker extends LinearLayout {
         String format(int value);
     }
 
+    /**
+     * Interface used to format the current value straight into a char buffer,
+     * so formatting does not allocate intermediate objects. Implementations
+     * set with {@link #setFormatter(Formatter)} which also implement this
+     * interface are used through it.
+     */
+    public interface CharFormatter {
+
+        /**
+         * @return The max number of chars written by {@link #format(int, char[], int)}.
+         */
+        int getMaxLength();
+
+        /**
+         * Writes the representation of the given value into <code>buffer</code>.
+         *
+         * @param value  The value to format.
+         * @param buffer The buffer to write into.
+         * @param offset The index of the first char to write.
+         * @return The number of chars written.
+         */
+        int format(int value, char[] buffer, int offset);
+    }
+
+    /**
+     * Interface used to label values lazily instead of providing an array of
+     * displayed values for the whole range. Labels are only requested for the
+     * values shown by the selector wheel or matched against typed text.
+     */
+    public interface ValueLabelProvider {
+
+        /**
+         * Returned by {@link #findValue(String, int, int)} if no label matches.
+         */
+        int NO_VALUE = Integer.MIN_VALUE;
+
+        /**
+         * The max number of labels scanned by the default
+         * {@link #findValue(String, int, int)}.
+         */
+        int MAX_SCANNED_LABELS = 256;
+
+        /**
+         * @param value The value to label.
+         * @return The label of the value.
+         */
+        String label(int value);
+
+        /**
+         * @return The width in pixels of the widest label at the selected text
+         * size or a negative value if unknown, in which case the max width
+         * grows with the widest label shown so far, once the wheel settles.
+         * Providers of large ranges should supply a hint, the picker would
+         * otherwise grow while being scrolled through its labels.
+         */
+        default float maxLabelWidthHint() {
+            return -1;
+        }
+
+        /**
+         * Finds the first value whose label starts with the typed text. The
+         * default implementation scans the labels of at most
+         * {@link #MAX_SCANNED_LABELS} values from the min value on, override
+         * it to look up values of larger ranges without labelling them.
+         *
+         * @param prefix   The typed text, lower cased.
+         * @param minValue The min value of the picker.
+         * @param maxValue The max value of the picker.
+         * @return The value or {@link #NO_VALUE} if no label matches.
+         */
+        default int findValue(String prefix, int minValue, int maxValue) {
+            final int last = (int) Math.min(maxValue, (long) minValue + MAX_SCANNED_LABELS - 1);
+            for (int value = minValue; value <= last; value++) {
+                final String label = label(value);
+                if (label != null && label.toLowerCase().startsWith(prefix)) {
+                    return value;
+                }
+            }
+            return NO_VALUE;
+        }
+    }
+
     /**
      * Create a new number picker.
      *
@@ -726,7 +1289,7 @@ public class NumberPicker extends LinearLayout {
     public NumberPicker(Context context, AttributeSet attrs, int defStyle) {
         super(context, attrs);
         mContext = context;
-        mNumberFormatter = NumberFormat.getInstance();
+        mNumberFormatter = LocaleRegistry.getNumberFormat(Locale.getDefault());
 
         @SuppressLint("CustomViewStyleable") final TypedArray attributes = context.obtainStyledAttributes(attrs,
                 R.styleable.NumberPicker, defStyle, 0);
@@ -801,8 +1364,13 @@ public class NumberPicker extends LinearLayout {
                 mFadingEdgeEnabled);
         mFadingEdgeStrength = attributes.getFloat(R.styleable.NumberPicker_np_fadingEdgeStrength,
                 mFadingEdgeStrength);
+        mFadeMode = attributes.getInt(R.styleable.NumberPicker_np_fadeMode, mFadeMode);
         mScrollerEnabled = attributes.getBoolean(R.styleable.NumberPicker_np_scrollerEnabled,
                 mScrollerEnabled);
+        mScrollHardwareLayerEnabled = attributes.getBoolean(
+                R.styleable.NumberPicker_np_scrollHardwareLayerEnabled, mScrollHardwareLayerEnabled);
+        mCurvedWheelEnabled = attributes.getBoolean(R.styleable.NumberPicker_np_curvedWheelEnabled,
+                mCurvedWheelEnabled);
         mWheelItemCount = attributes.getInt(R.styleable.NumberPicker_np_wheelItemCount,
                 mWheelItemCount);
         mLineSpacingMultiplier = attributes.getFloat(
@@ -833,11 +1401,12 @@ public class NumberPicker extends LinearLayout {
         mSelectedText.setFocusable(false);
         mSelectedText.setImeOptions(EditorInfo.IME_ACTION_NONE);
 
-        // create the selector wheel paint
+        // create the selector wheel paints
         Paint paint = new Paint();
         paint.setAntiAlias(true);
         paint.setTextAlign(Paint.Align.CENTER);
         mSelectorWheelPaint = paint;
+        mSelectedSelectorWheelPaint = new Paint(paint);
 
         setSelectedTextColor(mSelectedTextColor);
         setTextColor(mTextColor);
@@ -916,6 +1485,7 @@ public class NumberPicker extends LinearLayout {
 
         if (changed) {
             // need to do all this when we know our size
+            invalidateRenderedLabels();
             initializeSelectorWheel();
             initializeFadingEdges();
 
@@ -1005,6 +1575,8 @@ public class NumberPicker extends LinearLayout {
         removeAllCallbacks();
         // Make sure we support flinging inside scrollables.
         getParent().requestDisallowInterceptTouchEvent(true);
+        // the value of an interrupted fling is where the wheel stopped
+        resolveDeferredValue();
 
         if (isHorizontalMode()) {
             mLastDownOrMoveEventX = mLastDownEventX = event.getX();
@@ -1077,7 +1649,6 @@ public class NumberPicker extends LinearLayout {
                     } else {
                         int deltaMoveX = (int) ((currentMoveX - mLastDownOrMoveEventX));
                         scrollBy(deltaMoveX, 0);
-                        invalidate();
                     }
                     mLastDownOrMoveEventX = currentMoveX;
                 } else {
@@ -1091,13 +1662,14 @@ public class NumberPicker extends LinearLayout {
                     } else {
                         int deltaMoveY = (int) ((currentMoveY - mLastDownOrMoveEventY));
                         scrollBy(0, deltaMoveY);
-                        invalidate();
                     }
                     mLastDownOrMoveEventY = currentMoveY;
                 }
             }
             break;
             case MotionEvent.ACTION_UP: {
+                mTouchUpNanos = mPerformanceSampler.sample(PerformanceSampler.KIND_SETTLE)
+                        ? System.nanoTime() : PerformanceSampler.NOT_SAMPLED;
                 removeChangeCurrentByOneFromLongPress();
                 VelocityTracker velocityTracker = mVelocityTracker;
                 velocityTracker.computeCurrentVelocity(1000, mMaximumFlingVelocity);
@@ -1219,7 +1791,13 @@ public class NumberPicker extends LinearLayout {
         if (!isScrollerEnabled()) {
             return;
         }
+        final long start = mPerformanceSampler.begin(
+                PickerPerformanceListener.SECTION_COMPUTE_SCROLL);
+        computeWheelScroll();
+        mPerformanceSampler.end(PickerPerformanceListener.SECTION_COMPUTE_SCROLL, start);
+    }
 
+    private void computeWheelScroll() {
         Scroller scroller = mFlingScroller;
         if (scroller.isFinished()) {
             scroller = mAdjustScroller;
@@ -1228,25 +1806,29 @@ public class NumberPicker extends LinearLayout {
             }
         }
         scroller.computeScrollOffset();
+        if (mFlingSampled && scroller == mFlingScroller) {
+            countFlingFrame();
+        }
+        final boolean invalidated;
         if (isHorizontalMode()) {
             int currentScrollerX = scroller.getCurrX();
             if (mPreviousScrollerX == 0) {
                 mPreviousScrollerX = scroller.getStartX();
             }
-            scrollBy(currentScrollerX - mPreviousScrollerX, 0);
+            invalidated = scrollWheelBy(currentScrollerX - mPreviousScrollerX, 0);
             mPreviousScrollerX = currentScrollerX;
         } else {
             int currentScrollerY = scroller.getCurrY();
             if (mPreviousScrollerY == 0) {
                 mPreviousScrollerY = scroller.getStartY();
             }
-            scrollBy(0, currentScrollerY - mPreviousScrollerY);
+            invalidated = scrollWheelBy(0, currentScrollerY - mPreviousScrollerY);
             mPreviousScrollerY = currentScrollerY;
         }
         if (scroller.isFinished()) {
             onScrollerFinished(scroller);
-        } else {
-            postInvalidate();
+        } else if (!invalidated) {
+            invalidateWheel();
         }
     }
 
@@ -1258,32 +1840,64 @@ public class NumberPicker extends LinearLayout {
 
     @Override
     public void scrollBy(int x, int y) {
+        final boolean traced = PickerTrace.beginSection("NumberPicker.scrollBy");
+        try {
+            final long start = mPerformanceSampler.begin(PickerPerformanceListener.SECTION_SCROLL);
+            scrollWheelBy(x, y);
+            mPerformanceSampler.end(PickerPerformanceListener.SECTION_SCROLL, start);
+        } finally {
+            PickerTrace.endSection(traced);
+        }
+    }
+
+    /**
+     * Scrolls the selector wheel, invalidating it at most once no matter how
+     * many items are crossed.
+     *
+     * @return True if the selector wheel was invalidated.
+     */
+    private boolean scrollWheelBy(int x, int y) {
         if (!isScrollerEnabled()) {
-            return;
+            return false;
+        }
+        final int startScrollOffset = mCurrentScrollOffset;
+        mDeferWheelInvalidation = true;
+        try {
+            scrollSelectorIndicesBy(x, y);
+        } finally {
+            mDeferWheelInvalidation = false;
         }
-        int[] selectorIndices = getSelectorIndices();
+        if (mWheelInvalidationPending || startScrollOffset != mCurrentScrollOffset) {
+            mWheelInvalidationPending = false;
+            invalidateWheel();
+            return true;
+        }
+        return false;
+    }
+
+    private void scrollSelectorIndicesBy(int x, int y) {
         int startScrollOffset = mCurrentScrollOffset;
         int gap = (int) getMaxTextSize();
         if (isHorizontalMode()) {
             if (isAscendingOrder()) {
                 if (!mWrapSelectorWheel && x > 0
-                        && selectorIndices[mWheelMiddleItemIndex] <= mMinValue) {
+                        && getSelectorIndexAt(mWheelMiddleItemIndex) <= mMinValue) {
                     mCurrentScrollOffset = mInitialScrollOffset;
                     return;
                 }
                 if (!mWrapSelectorWheel && x < 0
-                        && selectorIndices[mWheelMiddleItemIndex] >= mMaxValue) {
+                        && getSelectorIndexAt(mWheelMiddleItemIndex) >= mMaxValue) {
                     mCurrentScrollOffset = mInitialScrollOffset;
                     return;
                 }
             } else {
                 if (!mWrapSelectorWheel && x > 0
-                        && selectorIndices[mWheelMiddleItemIndex] >= mMaxValue) {
+                        && getSelectorIndexAt(mWheelMiddleItemIndex) >= mMaxValue) {
                     mCurrentScrollOffset = mInitialScrollOffset;
                     return;
                 }
                 if (!mWrapSelectorWheel && x < 0
-                        && selectorIndices[mWheelMiddleItemIndex] <= mMinValue) {
+                        && getSelectorIndexAt(mWheelMiddleItemIndex) <= mMinValue) {
                     mCurrentScrollOffset = mInitialScrollOffset;
                     return;
                 }
@@ -1293,23 +1907,23 @@ public class NumberPicker extends LinearLayout {
         } else {
             if (isAscendingOrder()) {
                 if (!mWrapSelectorWheel && y > 0
-                        && selectorIndices[mWheelMiddleItemIndex] <= mMinValue) {
+                        && getSelectorIndexAt(mWheelMiddleItemIndex) <= mMinValue) {
                     mCurrentScrollOffset = mInitialScrollOffset;
                     return;
                 }
                 if (!mWrapSelectorWheel && y < 0
-                        && selectorIndices[mWheelMiddleItemIndex] >= mMaxValue) {
+                        && getSelectorIndexAt(mWheelMiddleItemIndex) >= mMaxValue) {
                     mCurrentScrollOffset = mInitialScrollOffset;
                     return;
                 }
             } else {
                 if (!mWrapSelectorWheel && y > 0
-                        && selectorIndices[mWheelMiddleItemIndex] >= mMaxValue) {
+                        && getSelectorIndexAt(mWheelMiddleItemIndex) >= mMaxValue) {
                     mCurrentScrollOffset = mInitialScrollOffset;
                     return;
                 }
                 if (!mWrapSelectorWheel && y < 0
-                        && selectorIndices[mWheelMiddleItemIndex] <= mMinValue) {
+                        && getSelectorIndexAt(mWheelMiddleItemIndex) <= mMinValue) {
                     mCurrentScrollOffset = mInitialScrollOffset;
                     return;
                 }
@@ -1320,25 +1934,15 @@ public class NumberPicker extends LinearLayout {
 
         while (mCurrentScrollOffset - mInitialScrollOffset > gap) {
             mCurrentScrollOffset -= mSelectorElementSize;
-            if (isAscendingOrder()) {
-                decrementSelectorIndices(selectorIndices);
-            } else {
-                incrementSelectorIndices(selectorIndices);
-            }
-            setValueInternal(selectorIndices[mWheelMiddleItemIndex], true);
-            if (!mWrapSelectorWheel && selectorIndices[mWheelMiddleItemIndex] < mMinValue) {
+            stepSelectorIndices(isAscendingOrder() ? -1 : 1);
+            if (!mWrapSelectorWheel && getSelectorIndexAt(mWheelMiddleItemIndex) < mMinValue) {
                 mCurrentScrollOffset = mInitialScrollOffset;
             }
         }
         while (mCurrentScrollOffset - mInitialScrollOffset < -gap) {
             mCurrentScrollOffset += mSelectorElementSize;
-            if (isAscendingOrder()) {
-                incrementSelectorIndices(selectorIndices);
-            } else {
-                decrementSelectorIndices(selectorIndices);
-            }
-            setValueInternal(selectorIndices[mWheelMiddleItemIndex], true);
-            if (!mWrapSelectorWheel && selectorIndices[mWheelMiddleItemIndex] > mMaxValue) {
+            stepSelectorIndices(isAscendingOrder() ? 1 : -1);
+            if (!mWrapSelectorWheel && getSelectorIndexAt(mWheelMiddleItemIndex) > mMaxValue) {
                 mCurrentScrollOffset = mInitialScrollOffset;
             }
         }
@@ -1397,7 +2001,14 @@ public class NumberPicker extends LinearLayout {
     @Override
     protected void onConfigurationChanged(Configuration newConfig) {
         super.onConfigurationChanged(newConfig);
-        mNumberFormatter = NumberFormat.getInstance();
+        LocaleRegistry.onLocaleChanged(newConfig.locale);
+        mNumberFormatter = LocaleRegistry.getNumberFormat(Locale.getDefault());
+        if (mLabelLocaleEpoch != LocaleRegistry.getEpoch()) {
+            invalidateLabelStyle();
+            invalidateSelectorLabels();
+            initializeSelectorWheelIndices();
+            invalidate();
+        }
     }
 
     /**
@@ -1427,6 +2038,30 @@ public class NumberPicker extends LinearLayout {
         mOnScrollListener = onScrollListener;
     }
 
+    /**
+     * Sets the listener to be notified with timing samples of every picker
+     * event.
+     *
+     * @param listener The listener, <code>null</code> to stop sampling.
+     */
+    public void setPerformanceListener(PickerPerformanceListener listener) {
+        setPerformanceListener(listener, 1);
+    }
+
+    /**
+     * Sets the listener to be notified with timing samples, sampling one out
+     * of every <code>sampleInterval</code> events of each kind.
+     *
+     * @param listener       The listener, <code>null</code> to stop sampling.
+     * @param sampleInterval The number of events per sample.
+     * @throws IllegalArgumentException If <code>sampleInterval</code> is less than one.
+     */
+    public void setPerformanceListener(PickerPerformanceListener listener, int sampleInterval) {
+        mPerformanceSampler.setListener(listener, sampleInterval);
+        mFlingSampled = false;
+        mTouchUpNanos = PerformanceSampler.NOT_SAMPLED;
+    }
+
     /**
      * Set the formatter to be used for formatting the current value.
      * <p>
@@ -1437,12 +2072,18 @@ public class NumberPicker extends LinearLayout {
      * @param formatter The formatter object. If formatter is <code>null</code>,
      *                  {@link String#valueOf(int)} will be used.
      * @see #setDisplayedValues(String[])
+     * @see #setValueLabelProvider(ValueLabelProvider)
      */
     public void setFormatter(Formatter formatter) {
         if (formatter == mFormatter) {
             return;
         }
         mFormatter = formatter;
+        invalidateRenderedLabels();
+        invalidateSelectorLabels();
+        if (deferUpdate()) {
+            return;
+        }
         initializeSelectorWheelIndices();
         updateInputTextView();
     }
@@ -1476,7 +2117,108 @@ public class NumberPicker extends LinearLayout {
      * @see #setMaxValue(int)
      */
     public void setValue(int value) {
+        if (mValueDeferred) {
+            // the set value replaces the one the fling would land on
+            mValueDeferred = false;
+            mDeferredValueSteps = 0;
+            initializeSelectorWheelIndices();
+        }
+        // changes waiting to be notified are dropped as well, the listener
+        // would apply them on top of the set value
+        dropPendingChange();
+        if (mUpdateDepth > 0) {
+            mHasPendingValue = true;
+            mPendingValue = value;
+        }
         setValueInternal(value, false);
+        applyMaxWidthIfSettled();
+    }
+
+    /**
+     * Starts a batched update. Until the matching {@link #endUpdate()}, the
+     * setters of the range, the displayed values, the formatter and the
+     * value only store their arguments, the picker is refreshed once the
+     * outermost batch ends. Intermediate states, e.g. displayed values not
+     * matching the range yet, are never shown or measured.
+     *
+     * @see #setRange(int, int, String[], int, boolean)
+     */
+    public void beginUpdate() {
+        mUpdateDepth++;
+    }
+
+    /**
+     * Ends a batched update started by {@link #beginUpdate()}. Ending the
+     * outermost batch resolves the last set value against the final range,
+     * then updates the selector wheel, the input text and the max width and
+     * invalidates the picker once.
+     *
+     * @throws IllegalStateException If no batched update was started.
+     */
+    public void endUpdate() {
+        if (mUpdateDepth == 0) {
+            throw new IllegalStateException("endUpdate() called without beginUpdate()");
+        }
+        if (--mUpdateDepth > 0 || (!mUpdatePending && !mHasPendingValue)) {
+            return;
+        }
+        final boolean traced = PickerTrace.beginSection("NumberPicker.endUpdate");
+        try {
+            mUpdatePending = false;
+            updateWrapSelectorWheel();
+            if (mHasPendingValue) {
+                mHasPendingValue = false;
+                mValue = mWrapSelectorWheel ? getWrappedSelectorIndex(mPendingValue)
+                        : Math.min(Math.max(mPendingValue, mMinValue), mMaxValue);
+            }
+            initializeSelectorWheelIndices();
+            updateInputTextView();
+            updateAccessibilityDescription();
+            tryComputeMaxWidth();
+            invalidate();
+        } finally {
+            PickerTrace.endSection(traced);
+        }
+    }
+
+    /**
+     * Sets the range, the displayed values, the value and whether the
+     * selector wheel wraps in a single batched update.
+     *
+     * @param minValue          The min value inclusive.
+     * @param maxValue          The max value inclusive.
+     * @param displayedValues   The displayed values or <code>null</code> to
+     *                          format the values, with a length equal to the
+     *                          range of selectable numbers.
+     * @param value             The current value.
+     * @param wrapSelectorWheel Whether to wrap.
+     * @see #beginUpdate()
+     */
+    public void setRange(int minValue, int maxValue, String[] displayedValues, int value,
+                         boolean wrapSelectorWheel) {
+        beginUpdate();
+        try {
+            setMinValue(minValue);
+            setMaxValue(maxValue);
+            setDisplayedValues(displayedValues);
+            setWrapSelectorWheel(wrapSelectorWheel);
+            setValue(value);
+        } finally {
+            endUpdate();
+        }
+    }
+
+    /**
+     * Defers refreshing the picker to the end of the current batched update.
+     *
+     * @return True if the refresh was deferred.
+     */
+    private boolean deferUpdate() {
+        if (mUpdateDepth == 0) {
+            return false;
+        }
+        mUpdatePending = true;
+        return true;
     }
 
     private float getMaxTextSize() {
@@ -1490,6 +2232,39 @@ public class NumberPicker extends LinearLayout {
         return Math.abs(fontMetrics.top + fontMetrics.bottom) / 2;
     }
 
+    /**
+     * Applies the text styles to the selector wheel paints and caches the
+     * metrics depending on them. Must be called whenever a text style changes,
+     * so drawing a frame neither changes paint state nor allocates.
+     */
+    private void updateSelectorWheelPaints() {
+        configureSelectorWheelPaint(mSelectorWheelPaint, mTextAlign, mTextSize, mTextColor,
+                mTextStrikeThru, mTextUnderline, mTypeface);
+        mSelectorWheelPaint.getFontMetrics(mFontMetrics);
+        mTextCenterYOffset = getPaintCenterY(mFontMetrics);
+        mTextLineHeight = Math.abs(mFontMetrics.descent + mFontMetrics.ascent)
+                * mLineSpacingMultiplier;
+
+        configureSelectorWheelPaint(mSelectedSelectorWheelPaint, mSelectedTextAlign,
+                mSelectedTextSize, mSelectedTextColor, mSelectedTextStrikeThru,
+                mSelectedTextUnderline, mSelectedTypeface);
+        mSelectedSelectorWheelPaint.getFontMetrics(mFontMetrics);
+        mSelectedTextCenterYOffset = getPaintCenterY(mFontMetrics);
+        mSelectedTextLineHeight = Math.abs(mFontMetrics.descent + mFontMetrics.ascent)
+                * mLineSpacingMultiplier;
+    }
+
+    private static void configureSelectorWheelPaint(Paint paint, int align, float textSize,
+                                                    int color, boolean strikeThru,
+                                                    boolean underline, Typeface typeface) {
+        paint.setTextAlign(PAINT_ALIGNS[align]);
+        paint.setTextSize(textSize);
+        paint.setColor(color);
+        paint.setStrikeThruText(strikeThru);
+        paint.setUnderlineText(underline);
+        paint.setTypeface(typeface);
+    }
+
     /**
      * Computes the max width if no such specified as an attribute.
      */
@@ -1497,38 +2272,121 @@ public class NumberPicker extends LinearLayout {
         if (!mComputeMaxWidth) {
             return;
         }
-        mSelectorWheelPaint.setTextSize(getMaxTextSize());
-        int maxTextWidth = 0;
-        if (mDisplayedValues == null) {
-            float maxDigitWidth = 0;
-            for (int i = 0; i <= 9; i++) {
-                final float digitWidth = mSelectorWheelPaint.measureText(formatNumber(i));
-                if (digitWidth > maxDigitWidth) {
-                    maxDigitWidth = digitWidth;
+        final boolean traced = PickerTrace.beginSection("NumberPicker.tryComputeMaxWidth");
+        try {
+            final Paint paint = getMaxWidthPaint();
+            int maxTextWidth = 0;
+            if (mValueLabelProvider != null) {
+                final float hint = mValueLabelProvider.maxLabelWidthHint();
+                if (hint >= 0) {
+                    maxTextWidth = (int) Math.ceil(hint);
+                } else {
+                    // measure the labels around the current value only, labels
+                    // coming into view later on widen it once the wheel settles
+                    maxTextWidth = mProvidedLabelMaxWidth;
+                    final int radius = mWheelItemCount;
+                    final int first = (int) Math.max((long) mValue - radius, mMinValue);
+                    final int last = (int) Math.min((long) mValue + radius, mMaxValue);
+                    for (int value = first; value <= last; value++) {
+                        final float textWidth = paint.measureText(getValueText(value));
+                        if (textWidth > maxTextWidth) {
+                            maxTextWidth = (int) textWidth;
+                        }
+                    }
+                    mProvidedLabelMaxWidth = maxTextWidth;
+                    mMaxWidthGrowPending = false;
                 }
-            }
-            int numberOfDigits = 0;
-            int current = mMaxValue;
-            while (current > 0) {
-                numberOfDigits++;
-                current = current / 10;
-            }
-            maxTextWidth = (int) (numberOfDigits * maxDigitWidth);
-        } else {
-            for (String displayedValue : mDisplayedValues) {
-                final float textWidth = mSelectorWheelPaint.measureText(displayedValue);
-                if (textWidth > maxTextWidth) {
-                    maxTextWidth = (int) textWidth;
+            } else if (mDisplayedValues == null) {
+                // digits are measured once per style, the width of any value is
+                // then its number of digits times the widest digit advance
+                final Object digits = mFormatter != null
+                        ? TextWidthCache.digitSet(mFormatter) : TextWidthCache.LOCALE_DIGITS;
+                float maxDigitWidth = TextWidthCache.get(paint, digits);
+                if (Float.isNaN(maxDigitWidth)) {
+                    maxDigitWidth = 0;
+                    for (int i = 0; i <= 9; i++) {
+                        final float digitWidth = paint.measureText(formatNumber(i));
+                        if (digitWidth > maxDigitWidth) {
+                            maxDigitWidth = digitWidth;
+                        }
+                    }
+                    TextWidthCache.put(paint, digits, maxDigitWidth);
+                }
+                int numberOfDigits = 0;
+                int current = mMaxValue;
+                while (current > 0) {
+                    numberOfDigits++;
+                    current = current / 10;
+                }
+                maxTextWidth = (int) (numberOfDigits * maxDigitWidth);
+            } else {
+                final Object labels = TextWidthCache.labelSet(mDisplayedValues);
+                final float cachedWidth = TextWidthCache.get(paint, labels);
+                if (Float.isNaN(cachedWidth)) {
+                    for (String displayedValue : mDisplayedValues) {
+                        final float textWidth = paint.measureText(displayedValue);
+                        if (textWidth > maxTextWidth) {
+                            maxTextWidth = (int) textWidth;
+                        }
+                    }
+                    TextWidthCache.put(paint, labels, maxTextWidth);
+                } else {
+                    maxTextWidth = (int) cachedWidth;
                 }
             }
+            maxTextWidth += mSelectedText.getPaddingLeft() + mSelectedText.getPaddingRight();
+            if (mMaxWidth != maxTextWidth) {
+                mMaxWidth = Math.max(maxTextWidth, mMinWidth);
+                invalidate();
+            }
+        } finally {
+            PickerTrace.endSection(traced);
+        }
+    }
+
+    /**
+     * Records the width of a provided label coming into view, as only the
+     * labels around the value were measured without a width hint. Labels are
+     * created while scrolling and laying out, so the picker is only widened
+     * by {@link #applyMaxWidthIfSettled()}.
+     */
+    private void fitProvidedLabel(String label) {
+        if (!mComputeMaxWidth || mValueLabelProvider.maxLabelWidthHint() >= 0) {
+            return;
+        }
+        final int width = (int) getMaxWidthPaint().measureText(label);
+        if (width > mProvidedLabelMaxWidth) {
+            mProvidedLabelMaxWidth = width;
+            mMaxWidthGrowPending = true;
+        }
+    }
+
+    /**
+     * Widens the max width to the widest provided label measured while the
+     * wheel moved, with a single layout request once it settled.
+     */
+    private void applyMaxWidthIfSettled() {
+        if (!mMaxWidthGrowPending || !isWheelSettled()) {
+            return;
         }
-        maxTextWidth += mSelectedText.getPaddingLeft() + mSelectedText.getPaddingRight();
-        if (mMaxWidth != maxTextWidth) {
-            mMaxWidth = Math.max(maxTextWidth, mMinWidth);
+        mMaxWidthGrowPending = false;
+        final int width = mProvidedLabelMaxWidth
+                + mSelectedText.getPaddingLeft() + mSelectedText.getPaddingRight();
+        if (width > mMaxWidth) {
+            mMaxWidth = width;
+            requestLayout();
             invalidate();
         }
     }
 
+    /**
+     * @return The paint of the larger text size, which the max width is
+     * measured with.
+     */
+    private Paint getMaxWidthPaint() {
+        return mSelectedTextSize > mTextSize ? mSelectedSelectorWheelPaint : mSelectorWheelPaint;
+    }
+
     /**
      * Gets whether the selector wheel wraps when reaching the min/max value.
      *
@@ -1620,12 +2478,24 @@ public class NumberPicker extends LinearLayout {
      *                 {@link #getMaxValue()} - {@link #getMinValue()} + 1.
      */
     public void setMinValue(int minValue) {
+        if (mDisplayedValues != null && mMinValue != minValue) {
+            // displayed values are indexed relative to the min value
+            invalidateSelectorLabels();
+        }
+        if (mMinValue != minValue) {
+            dropLabelTable();
+            // provided labels out of the new range no longer widen the picker
+            mProvidedLabelMaxWidth = 0;
+        }
         mMinValue = minValue;
         if (mMinValue > mValue) {
             mValue = mMinValue;
         }
 
         updateWrapSelectorWheel();
+        if (deferUpdate()) {
+            return;
+        }
         initializeSelectorWheelIndices();
         updateInputTextView();
         tryComputeMaxWidth();
@@ -1655,12 +2525,20 @@ public class NumberPicker extends LinearLayout {
         if (maxValue < 0) {
             throw new IllegalArgumentException("maxValue must be >= 0");
         }
+        if (mMaxValue != maxValue) {
+            dropLabelTable();
+            // provided labels out of the new range no longer widen the picker
+            mProvidedLabelMaxWidth = 0;
+        }
         mMaxValue = maxValue;
         if (mMaxValue < mValue) {
             mValue = mMaxValue;
         }
 
         updateWrapSelectorWheel();
+        if (deferUpdate()) {
+            return;
+        }
         initializeSelectorWheelIndices();
         updateInputTextView();
         tryComputeMaxWidth();
@@ -1681,19 +2559,77 @@ public class NumberPicker extends LinearLayout {
         if (mDisplayedValues == displayedValues) {
             return;
         }
+        if (!Arrays.equals(mDisplayedValues, displayedValues)) {
+            invalidateSelectorLabels();
+        }
+        if (displayedValues != null && mValueLabelProvider != null) {
+            mValueLabelProvider = null;
+            invalidateSelectorLabels();
+        }
         mDisplayedValues = displayedValues;
-        if (mDisplayedValues != null) {
+        invalidateRenderedLabels();
+        if (hasTextLabels()) {
+            // Allow text entry rather than strictly numeric entry.
+            mSelectedText.setRawInputType(InputType.TYPE_TEXT_FLAG_MULTI_LINE
+                    | InputType.TYPE_TEXT_FLAG_NO_SUGGESTIONS);
+        } else {
+            mSelectedText.setRawInputType(InputType.TYPE_CLASS_NUMBER);
+        }
+        if (deferUpdate()) {
+            return;
+        }
+        updateInputTextView();
+        initializeSelectorWheelIndices();
+        tryComputeMaxWidth();
+    }
+
+    /**
+     * Sets the provider of the labels to be displayed instead of the values.
+     * Unlike displayed values, labels are only created for the values shown or
+     * matched against typed text, so the provider suits large ranges. Setting
+     * a provider clears the displayed values.
+     *
+     * @param provider The label provider or <code>null</code> to format the
+     *                 values again.
+     * @see #setDisplayedValues(String[])
+     */
+    public void setValueLabelProvider(ValueLabelProvider provider) {
+        if (mValueLabelProvider == provider) {
+            return;
+        }
+        mValueLabelProvider = provider;
+        if (provider != null) {
+            mDisplayedValues = null;
+        }
+        invalidateSelectorLabels();
+        invalidateRenderedLabels();
+        if (hasTextLabels()) {
             // Allow text entry rather than strictly numeric entry.
             mSelectedText.setRawInputType(InputType.TYPE_TEXT_FLAG_MULTI_LINE
                     | InputType.TYPE_TEXT_FLAG_NO_SUGGESTIONS);
         } else {
             mSelectedText.setRawInputType(InputType.TYPE_CLASS_NUMBER);
         }
+        if (deferUpdate()) {
+            return;
+        }
         updateInputTextView();
         initializeSelectorWheelIndices();
         tryComputeMaxWidth();
     }
 
+    public ValueLabelProvider getValueLabelProvider() {
+        return mValueLabelProvider;
+    }
+
+    /**
+     * @return True if the values are labeled by displayed values or a label
+     * provider rather than formatted as numbers.
+     */
+    private boolean hasTextLabels() {
+        return mDisplayedValues != null || mValueLabelProvider != null;
+    }
+
     private float getFadingEdgeStrength(boolean isHorizontalMode) {
         return isHorizontalMode && mFadingEdgeEnabled ? mFadingEdgeStrength : 0;
     }
@@ -1722,6 +2658,16 @@ public class NumberPicker extends LinearLayout {
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
         removeAllCallbacks();
+        // no frame will come to notify the coalesced changes
+        removeNotifyFrameCallback();
+        notifyPendingChange();
+        dropScrollHardwareLayer();
+        if (mLabelAtlas != null) {
+            mLabelAtlas.release();
+        }
+        if (mLabelRenderNodes != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            mLabelRenderNodes.clear();
+        }
     }
 
     @CallSuper
@@ -1746,6 +2692,19 @@ public class NumberPicker extends LinearLayout {
     @SuppressLint("ResourceAsColor")
     @Override
     protected void onDraw(Canvas canvas) {
+        final boolean traced = PickerTrace.beginSection("NumberPicker.onDraw");
+        try {
+            final long start = mPerformanceSampler.begin(PickerPerformanceListener.SECTION_DRAW);
+            drawPicker(canvas);
+            mPerformanceSampler.end(PickerPerformanceListener.SECTION_DRAW, start);
+        } finally {
+            PickerTrace.endSection(traced);
+        }
+    }
+
+    private void drawPicker(Canvas canvas) {
+        mDrawnScrollOffset = mCurrentScrollOffset;
+
         // save canvas
         canvas.save();
 
@@ -1765,28 +2724,22 @@ public class NumberPicker extends LinearLayout {
             }
         }
 
-        // draw the selector wheel
-        int[] selectorIndices = getSelectorIndices();
-        for (int i = 0; i < selectorIndices.length; i++) {
-            if (i == mWheelMiddleItemIndex) {
-                mSelectorWheelPaint.setTextAlign(Paint.Align.values()[mSelectedTextAlign]);
-                mSelectorWheelPaint.setTextSize(mSelectedTextSize);
-                mSelectorWheelPaint.setColor(mSelectedTextColor);
-                mSelectorWheelPaint.setStrikeThruText(mSelectedTextStrikeThru);
-                mSelectorWheelPaint.setUnderlineText(mSelectedTextUnderline);
-                mSelectorWheelPaint.setTypeface(mSelectedTypeface);
-            } else {
-                mSelectorWheelPaint.setTextAlign(Paint.Align.values()[mTextAlign]);
-                mSelectorWheelPaint.setTextSize(mTextSize);
-                mSelectorWheelPaint.setColor(mTextColor);
-                mSelectorWheelPaint.setStrikeThruText(mTextStrikeThru);
-                mSelectorWheelPaint.setUnderlineText(mTextUnderline);
-                mSelectorWheelPaint.setTypeface(mTypeface);
-            }
+        if (mLabelRenderNodes != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            mLabelRenderNodes.beginFrame();
+        }
+
+        final CurvedWheelTransforms curvedWheelTransforms = mCurvedWheelTransforms;
+        final float wheelCenter = (isHorizontalMode() ? getWidth() : getHeight()) / 2f;
 
-            int selectorIndex = selectorIndices[isAscendingOrder()
-                    ? i : selectorIndices.length - i - 1];
-            String scrollSelectorValue = mSelectorIndexToStringCache.get(selectorIndex);
+        // draw the selector wheel
+        final int selectorIndexCount = mSelectorIndices.length;
+        for (int i = 0; i < selectorIndexCount; i++) {
+            final boolean selected = i == mWheelMiddleItemIndex;
+            final Paint paint = selected ? mSelectedSelectorWheelPaint : mSelectorWheelPaint;
+
+            int selectorIndex = getSelectorIndexAt(isAscendingOrder()
+                    ? i : selectorIndexCount - i - 1);
+            SelectorLabel scrollSelectorValue = peekSelectorLabel(selectorIndex);
             if (scrollSelectorValue == null) {
                 continue;
             }
@@ -1799,7 +2752,7 @@ public class NumberPicker extends LinearLayout {
                     || (i == mWheelMiddleItemIndex && mSelectedText.getVisibility() != VISIBLE)) {
                 float textY = y;
                 if (!isHorizontalMode()) {
-                    textY += getPaintCenterY(mSelectorWheelPaint.getFontMetrics());
+                    textY += selected ? mSelectedTextCenterYOffset : mTextCenterYOffset;
                 }
 
                 int xOffset = 0;
@@ -1821,7 +2774,24 @@ public class NumberPicker extends LinearLayout {
                     }
                 }
 
-                drawText(scrollSelectorValue, x + xOffset, textY + yOffset, mSelectorWheelPaint, canvas);
+                final float slotCenter = isHorizontalMode() ? x + xOffset : y + yOffset;
+                int alpha = getFadeAlpha(slotCenter);
+                int transformIndex = -1;
+                if (curvedWheelTransforms != null) {
+                    transformIndex = curvedWheelTransforms.indexOf(slotCenter - wheelCenter);
+                    if (transformIndex >= 0) {
+                        alpha = alpha * curvedWheelTransforms.getAlpha(transformIndex) / 255;
+                        canvas.save();
+                        canvas.concat(curvedWheelTransforms.getMatrix(transformIndex));
+                    } else {
+                        alpha = 0;
+                    }
+                }
+                drawLabel(scrollSelectorValue, x + xOffset, textY + yOffset, y + yOffset, paint,
+                        alpha, selected, canvas);
+                if (transformIndex >= 0) {
+                    canvas.restore();
+                }
             }
 
             if (isHorizontalMode()) {
@@ -1930,58 +2900,249 @@ public class NumberPicker extends LinearLayout {
         }
     }
 
-    private void drawText(String text, float x, float y, Paint paint, Canvas canvas) {
-        if (text.contains("\n")) {
-            final String[] lines = text.split("\n");
-            final float height = Math.abs(paint.descent() + paint.ascent())
-                    * mLineSpacingMultiplier;
-            final float diff = (lines.length - 1) * height / 2;
-            y -= diff;
-            for (String line : lines) {
-                canvas.drawText(line, x, y, paint);
+    private void drawText(SelectorLabel label, float x, float y, Paint paint, boolean selected,
+                          Canvas canvas) {
+        if (label.mLineEnds != null) {
+            final float height = getLineHeight(selected);
+            final int lineCount = label.getLineCount();
+            y -= (lineCount - 1) * height / 2;
+            for (int line = 0; line < lineCount; line++) {
+                final int start = label.getLineStart(line);
+                canvas.drawText(label.mChars, start, label.getLineEnd(line) - start, x, y,
+                        paint);
                 y += height;
             }
+        } else if (!selected && label.mPrecomputedText != null
+                && label.mPrecomputedStyle == mLabelStyleGeneration) {
+            final int length = label.mChars.length;
+            canvas.drawTextRun(label.mPrecomputedText, 0, length, 0, length, x, y,
+                    label.mPrecomputedRtl, paint);
         } else {
-            canvas.drawText(text, x, y, paint);
+            canvas.drawText(label.mChars, 0, label.mChars.length, x, y, paint);
         }
     }
 
-    @Override
-    public void onInitializeAccessibilityEvent(AccessibilityEvent event) {
-        super.onInitializeAccessibilityEvent(event);
-        event.setClassName(com.example.datepicker.NumberPicker.class.getName());
-        event.setScrollable(isScrollerEnabled());
-        final int scroll = (mMinValue + mValue) * mSelectorElementSize;
-        final int maxScroll = (mMaxValue - mMinValue) * mSelectorElementSize;
-        if (isHorizontalMode()) {
-            event.setScrollX(scroll);
-            event.setMaxScrollX(maxScroll);
-        } else {
-            event.setScrollY(scroll);
-            event.setMaxScrollY(maxScroll);
-        }
+    /**
+     * @return The cached line height of the normal or selected text style.
+     */
+    private float getLineHeight(boolean selected) {
+        return selected ? mSelectedTextLineHeight : mTextLineHeight;
     }
 
     /**
-     * Makes a measure spec that tries greedily to use the max value.
+     * Draws a label of the selector wheel from its render node or the label
+     * atlas if enabled, falling back to drawing it as text.
      *
-     * @param measureSpec The measure spec.
-     * @param maxSize     The max value for the size.
-     * @return A measure spec greedily imposing the max size.
+     * @param slotCenter The center of the selector slot the text is drawn in.
+     * @param alpha The fade alpha applied on top of the alpha of <code>paint</code>.
      */
-    private int makeMeasureSpec(int measureSpec, int maxSize) {
-        if (maxSize == SIZE_UNSPECIFIED) {
-            return measureSpec;
+    private void drawLabel(SelectorLabel text, float x, float y, float slotCenter, Paint paint,
+                           int alpha, boolean selected, Canvas canvas) {
+        if (text.isEmpty() || alpha == 0) {
+            return;
         }
-        final int size = MeasureSpec.getSize(measureSpec);
-        final int mode = MeasureSpec.getMode(measureSpec);
-        switch (mode) {
-            case MeasureSpec.EXACTLY:
-                return measureSpec;
-            case MeasureSpec.AT_MOST:
-                return MeasureSpec.makeMeasureSpec(Math.min(size, maxSize), MeasureSpec.EXACTLY);
-            case MeasureSpec.UNSPECIFIED:
-                return MeasureSpec.makeMeasureSpec(maxSize, MeasureSpec.EXACTLY);
+        if (mLabelRenderNodes != null && canvas.isHardwareAccelerated()
+                && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+                && drawTextFromRenderNode(text, x, y, slotCenter, paint, alpha, selected,
+                canvas)) {
+            return;
+        }
+        final int paintAlpha = paint.getAlpha();
+        if (alpha < 255) {
+            paint.setAlpha(paintAlpha * alpha / 255);
+        }
+        if (mLabelAtlas == null
+                || !drawTextFromAtlas(text, x, y, slotCenter, paint, selected, canvas)) {
+            drawText(text, x, y, paint, selected, canvas);
+        }
+        paint.setAlpha(paintAlpha);
+    }
+
+    /**
+     * @param slotCenter The center of a selector slot along the wheel.
+     * @return The fade alpha of a label drawn in the given slot.
+     */
+    private int getFadeAlpha(float slotCenter) {
+        final int[] fadeAlphas = mFadeAlphas;
+        if (fadeAlphas == null) {
+            return 255;
+        }
+        final int distance = (int) Math.abs(slotCenter - (fadeAlphas.length - 1));
+        return distance < fadeAlphas.length ? fadeAlphas[distance] : 0;
+    }
+
+    /**
+     * Draws the given text through its render node, recording it first if
+     * needed. The text is recorded relative to the node origin, so moving the
+     * text only updates the node translation.
+     *
+     * @param slotCenter The center of the selector slot the text is drawn in.
+     * @return False if the render node of the text is already drawn in this frame.
+     */
+    @RequiresApi(Build.VERSION_CODES.Q)
+    private boolean drawTextFromRenderNode(SelectorLabel text, float x, float y,
+                                           float slotCenter, Paint paint, int alpha,
+                                           boolean selected, Canvas canvas) {
+        final RenderNode node = mLabelRenderNodes.obtain(text.getText(), selected);
+        if (node == null) {
+            return false;
+        }
+        final float translationY = isHorizontalMode() ? 0 : slotCenter;
+        if (!node.hasDisplayList()) {
+            node.setPosition(0, 0, getWidth(), getHeight());
+            node.setClipToBounds(false);
+            // lets the node alpha apply without an offscreen layer
+            node.setHasOverlappingRendering(false);
+            final Canvas recordingCanvas = node.beginRecording();
+            try {
+                drawText(text, 0, y - translationY, paint, selected, recordingCanvas);
+            } finally {
+                node.endRecording();
+            }
+        }
+        node.setTranslationX(x);
+        node.setTranslationY(translationY);
+        node.setAlpha(alpha / 255f);
+        canvas.drawRenderNode(node);
+        return true;
+    }
+
+    /**
+     * Draws the given text by blitting it from the label atlas, rendering it
+     * into the atlas first if it is not there yet.
+     *
+     * @param slotCenter The center of the selector slot the text is drawn in.
+     * @return False if the text does not fit into an atlas cell and has to be
+     * drawn directly.
+     */
+    private boolean drawTextFromAtlas(SelectorLabel text, float x, float y, float slotCenter,
+                                      Paint paint, boolean selected, Canvas canvas) {
+        final LabelAtlas atlas = mLabelAtlas;
+        final int cellWidth = mMaxWidth > 0 ? Math.min(mMaxWidth, getWidth()) : getWidth();
+        final int cellHeight = isHorizontalMode() ? getHeight() : mSelectorElementSize;
+        if (!atlas.setCellSize(cellWidth, cellHeight)) {
+            return false;
+        }
+
+        final float anchorX;
+        switch (paint.getTextAlign()) {
+            case LEFT:
+                anchorX = LABEL_ATLAS_CELL_PADDING;
+                break;
+            case RIGHT:
+                anchorX = cellWidth - LABEL_ATLAS_CELL_PADDING;
+                break;
+            default:
+                anchorX = cellWidth / 2f;
+                break;
+        }
+        final float left = x - anchorX;
+        final float top = isHorizontalMode() ? 0 : slotCenter - cellHeight / 2f;
+
+        int cell = atlas.getCell(text.getText(), selected);
+        if (cell < 0) {
+            if (!fitsIntoAtlasCell(text, y - top, cellWidth, cellHeight, paint, selected)) {
+                return false;
+            }
+            cell = atlas.beginRender(text.getText(), selected);
+            if (cell < 0) {
+                return false;
+            }
+            drawText(text, anchorX, y - top, atlas.getRenderPaint(paint), selected,
+                    atlas.getCanvas());
+            atlas.endRender();
+        }
+        atlas.drawCell(canvas, cell, left, top, paint);
+        return true;
+    }
+
+    /**
+     * @return Whether the given text drawn at <code>baseline</code> fits into
+     * a label atlas cell of the given size.
+     */
+    private boolean fitsIntoAtlasCell(SelectorLabel text, float baseline, int cellWidth,
+                                      int cellHeight, Paint paint, boolean selected) {
+        final int lineCount = text.getLineCount();
+        float maxLineWidth = 0;
+        for (int line = 0; line < lineCount; line++) {
+            final int start = text.getLineStart(line);
+            maxLineWidth = Math.max(maxLineWidth, paint.measureText(text.mChars, start,
+                    text.getLineEnd(line) - start));
+        }
+        if (maxLineWidth + 2 * LABEL_ATLAS_CELL_PADDING > cellWidth) {
+            return false;
+        }
+        final float diff = (lineCount - 1) * getLineHeight(selected) / 2;
+        return baseline - diff + paint.ascent() >= 0
+                && baseline + diff + paint.descent() <= cellHeight;
+    }
+
+    /**
+     * Drops the labels shaped with the previous text style and the rendered
+     * labels, after the text paints changed.
+     */
+    private void invalidateLabelStyle() {
+        mLabelStyleGeneration++;
+        invalidateRenderedLabels();
+    }
+
+    /**
+     * Drops the labels rendered into the label atlas and the label render
+     * nodes, if enabled.
+     */
+    private void invalidateRenderedLabels() {
+        if (mLabelAtlas != null) {
+            mLabelAtlas.clear();
+        }
+        invalidateLabelRenderNodes();
+    }
+
+    /**
+     * Drops the label render nodes, if enabled. Unlike the label atlas they
+     * also depend on the text colors.
+     */
+    private void invalidateLabelRenderNodes() {
+        if (mLabelRenderNodes != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            mLabelRenderNodes.clear();
+        }
+    }
+
+    @Override
+    public void onInitializeAccessibilityEvent(AccessibilityEvent event) {
+        super.onInitializeAccessibilityEvent(event);
+        event.setClassName(com.example.datepicker.NumberPicker.class.getName());
+        event.setScrollable(isScrollerEnabled());
+        final int scroll = (mMinValue + mValue) * mSelectorElementSize;
+        final int maxScroll = (mMaxValue - mMinValue) * mSelectorElementSize;
+        if (isHorizontalMode()) {
+            event.setScrollX(scroll);
+            event.setMaxScrollX(maxScroll);
+        } else {
+            event.setScrollY(scroll);
+            event.setMaxScrollY(maxScroll);
+        }
+    }
+
+    /**
+     * Makes a measure spec that tries greedily to use the max value.
+     *
+     * @param measureSpec The measure spec.
+     * @param maxSize     The max value for the size.
+     * @return A measure spec greedily imposing the max size.
+     */
+    private int makeMeasureSpec(int measureSpec, int maxSize) {
+        if (maxSize == SIZE_UNSPECIFIED) {
+            return measureSpec;
+        }
+        final int size = MeasureSpec.getSize(measureSpec);
+        final int mode = MeasureSpec.getMode(measureSpec);
+        switch (mode) {
+            case MeasureSpec.EXACTLY:
+                return measureSpec;
+            case MeasureSpec.AT_MOST:
+                return MeasureSpec.makeMeasureSpec(Math.min(size, maxSize), MeasureSpec.EXACTLY);
+            case MeasureSpec.UNSPECIFIED:
+                return MeasureSpec.makeMeasureSpec(maxSize, MeasureSpec.EXACTLY);
             default:
                 throw new IllegalArgumentException("Unknown measure mode: " + mode);
         }
@@ -2047,16 +3208,32 @@ public class NumberPicker extends LinearLayout {
      * these indices.
      */
     private void initializeSelectorWheelIndices() {
-        mSelectorIndexToStringCache.clear();
-        int[] selectorIndices = getSelectorIndices();
-        int current = getValue();
-        for (int i = 0; i < selectorIndices.length; i++) {
-            int selectorIndex = current + (i - mWheelMiddleItemIndex);
-            if (mWrapSelectorWheel) {
-                selectorIndex = getWrappedSelectorIndex(selectorIndex);
+        // while a fling is deferring the value the wheel stays where it is
+        initializeSelectorWheelIndices(
+                mValueDeferred ? getSelectorIndexAt(mWheelMiddleItemIndex) : getValue());
+    }
+
+    /**
+     * Resets the selector indices around the given index in the middle of the
+     * wheel.
+     */
+    private void initializeSelectorWheelIndices(int current) {
+        final boolean traced = PickerTrace.beginSection(
+                "NumberPicker.initializeSelectorWheelIndices");
+        try {
+            int[] selectorIndices = mSelectorIndices;
+            mSelectorIndicesHead = 0;
+            for (int i = 0; i < selectorIndices.length; i++) {
+                int selectorIndex = current + (i - mWheelMiddleItemIndex);
+                if (mWrapSelectorWheel) {
+                    selectorIndex = getWrappedSelectorIndex(selectorIndex);
+                }
+                selectorIndices[i] = selectorIndex;
+                ensureCachedScrollSelectorValue(selectorIndices[i]);
             }
-            selectorIndices[i] = selectorIndex;
-            ensureCachedScrollSelectorValue(selectorIndices[i]);
+            traceCounters();
+        } finally {
+            PickerTrace.endSection(traced);
         }
     }
 
@@ -2070,25 +3247,105 @@ public class NumberPicker extends LinearLayout {
         if (mValue == current) {
             return;
         }
-        // Wrap around the values if we go past the start or end
-        if (mWrapSelectorWheel) {
-            current = getWrappedSelectorIndex(current);
-        } else {
-            current = Math.max(current, mMinValue);
-            current = Math.min(current, mMaxValue);
+        final boolean traced = PickerTrace.beginSection("NumberPicker.setValueInternal");
+        try {
+            // Wrap around the values if we go past the start or end
+            if (mWrapSelectorWheel) {
+                current = getWrappedSelectorIndex(current);
+            } else {
+                current = Math.max(current, mMinValue);
+                current = Math.min(current, mMaxValue);
+            }
+            int previous = mValue;
+            mValue = current;
+            if (!notifyChange && deferUpdate()) {
+                return;
+            }
+            // If we're flinging, we'll update the text view at the end when it becomes visible
+            if (mScrollState != OnScrollListener.SCROLL_STATE_FLING) {
+                updateInputTextView();
+            }
+            if (notifyChange) {
+                notifyChange(previous, current);
+            }
+            initializeSelectorWheelIndices();
+            updateAccessibilityDescription();
+            invalidateWheel();
+        } finally {
+            PickerTrace.endSection(traced);
         }
-        int previous = mValue;
-        mValue = current;
-        // If we're flinging, we'll update the text view at the end when it becomes visible
-        if (mScrollState != OnScrollListener.SCROLL_STATE_FLING) {
-            updateInputTextView();
+    }
+
+    /**
+     * Sets the trace counters of the current value and the label cache size.
+     */
+    private void traceCounters() {
+        if (!PickerTrace.isEnabled()) {
+            return;
         }
-        if (notifyChange) {
-            notifyChange(previous, current);
+        if (mValueCounterName == null) {
+            final String prefix = "NumberPicker#"
+                    + Integer.toHexString(System.identityHashCode(this));
+            mValueCounterName = prefix + ".value";
+            mLabelCacheSizeCounterName = prefix + ".labelCacheSize";
+        }
+        PickerTrace.setCounter(mValueCounterName, mValue);
+        PickerTrace.setCounter(mLabelCacheSizeCounterName, mSelectorLabelCache.size());
+    }
+
+    /**
+     * Invalidates the band of the selector wheel. While the wheel is being
+     * scrolled the invalidation is deferred, so it happens once per scroll.
+     * Only software rendering honors the band, hardware accelerated views
+     * are invalidated as a whole.
+     */
+    @SuppressWarnings("deprecation")
+    private void invalidateWheel() {
+        if (mDeferWheelInvalidation) {
+            mWheelInvalidationPending = true;
+            return;
+        }
+        if (isHardwareAccelerated()) {
+            invalidate();
+            return;
+        }
+        computeWheelBand(mWheelBand);
+        invalidate(mWheelBand.left, mWheelBand.top, mWheelBand.right, mWheelBand.bottom);
+    }
+
+    /**
+     * Computes the band covered by the selector wheel items as last drawn and
+     * at the current scroll offset, clipped to the dividers if the wheel is.
+     */
+    private void computeWheelBand(Rect outBand) {
+        final int width = getWidth();
+        final int height = getHeight();
+        if (mSelectorElementSize == 0 || mCurvedWheelTransforms != null) {
+            // the curved wheel moves every label on each scroll
+            outBand.set(0, 0, width, height);
+            return;
+        }
+        final int padding = mSelectorElementSize + Math.abs(mItemSpacing);
+        int start = Math.min(mDrawnScrollOffset, mCurrentScrollOffset) - padding;
+        int end = Math.max(mDrawnScrollOffset, mCurrentScrollOffset)
+                + (mSelectorIndices.length - 1) * mSelectorElementSize + padding;
+        final boolean clipped = mRealWheelItemCount < DEFAULT_WHEEL_ITEM_COUNT;
+        if (isHorizontalMode()) {
+            // labels may be wider than a selector element
+            start -= Math.max(mMaxWidth, 0);
+            end += Math.max(mMaxWidth, 0);
+            if (clipped) {
+                start = Math.max(start, mLeftDividerLeft);
+                end = Math.min(end, mRightDividerRight);
+            }
+            outBand.set(Math.max(start, 0), 0, Math.min(end, width), height);
+        } else {
+            if (clipped) {
+                start = Math.max(start, mTopDividerTop);
+                end = Math.min(end, mBottomDividerBottom);
+            }
+            outBand.set(0, Math.max(start, 0), width, Math.min(end, height));
         }
-        initializeSelectorWheelIndices();
-        updateAccessibilityDescription();
-        invalidate();
     }
 
     /**
@@ -2124,22 +3381,81 @@ public class NumberPicker extends LinearLayout {
      * @param steps     The steps to scroll.
      */
     public void smoothScroll(boolean increment, int steps) {
+        smoothScroll(increment, steps, SNAP_SCROLL_DURATION);
+    }
+
+    private void smoothScroll(boolean increment, int steps, int durationMillis) {
         final int diffSteps = (increment ? -mSelectorElementSize : mSelectorElementSize) * steps;
         if (isHorizontalMode()) {
             mPreviousScrollerX = 0;
-            mFlingScroller.startScroll(0, 0, diffSteps, 0, SNAP_SCROLL_DURATION);
+            mFlingScroller.startScroll(0, 0, diffSteps, 0, durationMillis);
         } else {
             mPreviousScrollerY = 0;
-            mFlingScroller.startScroll(0, 0, 0, diffSteps, SNAP_SCROLL_DURATION);
+            mFlingScroller.startScroll(0, 0, 0, diffSteps, durationMillis);
         }
-        invalidate();
+        invalidateWheel();
+    }
+
+    /**
+     * Animates the wheel to the given value, taking the shorter way around if
+     * the wheel wraps. However far the value is, the wheel jumps to a few
+     * items before it and scrolls only the items of one visible window, so
+     * far jumps take as many frames as short ones. The value is set and the
+     * listener notified once, when the wheel settles on it, with
+     * {@link #getValueChangeSteps()} counting all the steps to it.
+     *
+     * @param value         The value to animate to, clamped or wrapped like
+     *                      {@link #setValue(int)} does.
+     * @param maxDurationMs The max duration of the animation in milliseconds,
+     *                      0 to set the value without animating.
+     */
+    public void animateToValue(int value, int maxDurationMs) {
+        // a running scroll lands first, like when changing the value by one
+        if (!moveToFinalScrollerPosition(mFlingScroller)) {
+            moveToFinalScrollerPosition(mAdjustScroller);
+        }
+        resolveDeferredValue();
+        final int target;
+        int steps;
+        if (mWrapSelectorWheel) {
+            target = getWrappedSelectorIndex(value);
+            final int range = mMaxValue - mMinValue + 1;
+            steps = target - mValue;
+            if (steps > range / 2) {
+                steps -= range;
+            } else if (steps < -range / 2) {
+                steps += range;
+            }
+        } else {
+            target = Math.min(Math.max(value, mMinValue), mMaxValue);
+            steps = target - mValue;
+        }
+        if (steps == 0) {
+            return;
+        }
+        if (maxDurationMs <= 0 || mSelectorElementSize == 0) {
+            mValueChangeSteps = steps;
+            setValueInternal(target, true);
+            return;
+        }
+        final int animatedSteps = Math.min(Math.abs(steps), mWheelItemCount);
+        final int jumpSteps = steps > 0 ? steps - animatedSteps : steps + animatedSteps;
+        // the skipped items only move the visible window, the value follows
+        // once the wheel settles like after a deferred fling
+        mValueDeferred = true;
+        mDeferredValueSteps = jumpSteps;
+        mCurrentScrollOffset = mInitialScrollOffset;
+        initializeSelectorWheelIndices(mValue + jumpSteps);
+        // a descending wheel steps the other way for the same scroll
+        smoothScroll((steps > 0) == isAscendingOrder(), animatedSteps,
+                Math.min(maxDurationMs, animatedSteps * SNAP_SCROLL_DURATION));
     }
 
     private void initializeSelectorWheel() {
         initializeSelectorWheelIndices();
-        int[] selectorIndices = getSelectorIndices();
-        int totalTextSize = (int) ((selectorIndices.length - 1) * mTextSize + mSelectedTextSize);
-        float textGapCount = selectorIndices.length;
+        final int selectorIndexCount = mSelectorIndices.length;
+        int totalTextSize = (int) ((selectorIndexCount - 1) * mTextSize + mSelectedTextSize);
+        float textGapCount = selectorIndexCount;
         if (isHorizontalMode()) {
             float totalTextGapWidth = (getRight() - getLeft()) - totalTextSize;
             mSelectorTextGapWidth = (int) (totalTextGapWidth / textGapCount);
@@ -2152,141 +3468,632 @@ public class NumberPicker extends LinearLayout {
             mInitialScrollOffset = (int) (mSelectedTextCenterY - mSelectorElementSize * mWheelMiddleItemIndex);
         }
         mCurrentScrollOffset = mInitialScrollOffset;
+        initializeCurvedWheel();
         updateInputTextView();
     }
 
     private void initializeFadingEdges() {
+        if (mFadeMode == FADE_ALPHA) {
+            setHorizontalFadingEdgeEnabled(false);
+            setVerticalFadingEdgeEnabled(false);
+            initializeFadeAlphas();
+            return;
+        }
+        mFadeAlphas = null;
         if (isHorizontalMode()) {
             setHorizontalFadingEdgeEnabled(true);
             setVerticalFadingEdgeEnabled(false);
             setFadingEdgeLength((getRight() - getLeft() - (int) mTextSize) / 2);
         } else {
-            setHorizontalFadingEdgeEnabled(false);
-            setVerticalFadingEdgeEnabled(true);
-            setFadingEdgeLength((getBottom() - getTop() - (int) mTextSize) / 2);
+            setHorizontalFadingEdgeEnabled(false);
+            setVerticalFadingEdgeEnabled(true);
+            setFadingEdgeLength((getBottom() - getTop() - (int) mTextSize) / 2);
+        }
+    }
+
+    private void initializeCurvedWheel() {
+        if (!mCurvedWheelEnabled) {
+            mCurvedWheelTransforms = null;
+            return;
+        }
+        if (mCurvedWheelTransforms == null) {
+            mCurvedWheelTransforms = new CurvedWheelTransforms();
+        }
+        final float centerX = getWidth() / 2f;
+        final float centerY = getHeight() / 2f;
+        mCurvedWheelTransforms.update(isHorizontalMode(), mSelectorElementSize, centerX, centerY,
+                isHorizontalMode() ? centerX : centerY);
+    }
+
+    /**
+     * Computes the fade alpha for every distance from the wheel center, so
+     * labels fade like with fading edges of the same length and strength.
+     */
+    private void initializeFadeAlphas() {
+        final int length = isHorizontalMode() ? getRight() - getLeft() : getBottom() - getTop();
+        if (!mFadingEdgeEnabled || length <= 0) {
+            mFadeAlphas = null;
+            return;
+        }
+        final int halfLength = length / 2;
+        if (mFadeAlphas == null || mFadeAlphas.length != halfLength + 1) {
+            mFadeAlphas = new int[halfLength + 1];
+        }
+        final float fadeLength = (length - (int) mTextSize) / 2f * mFadingEdgeStrength;
+        for (int distance = 0; distance <= halfLength; distance++) {
+            final float edgeDistance = halfLength - distance;
+            final float alpha = fadeLength > 0 ? Math.min(1f, edgeDistance / fadeLength) : 1f;
+            mFadeAlphas[distance] = (int) (alpha * 255 + 0.5f);
+        }
+    }
+
+    /**
+     * Callback invoked upon completion of a given <code>scroller</code>.
+     */
+    private void onScrollerFinished(Scroller scroller) {
+        if (scroller == mFlingScroller) {
+            ensureScrollWheelAdjusted();
+            if (mAdjustScroller.isFinished()) {
+                resolveDeferredValue();
+            }
+            updateInputTextView();
+            onScrollStateChange(OnScrollListener.SCROLL_STATE_IDLE);
+        } else {
+            // the wheel settled on the value the fling landed on
+            resolveDeferredValue();
+            if (mScrollState != OnScrollListener.SCROLL_STATE_TOUCH_SCROLL) {
+                updateInputTextView();
+            }
+            notifyChangeIfSettled();
+            applyMaxWidthIfSettled();
+        }
+    }
+
+    /**
+     * Handles transition to a given <code>scrollState</code>
+     */
+    private void onScrollStateChange(int scrollState) {
+        if (scrollState == OnScrollListener.SCROLL_STATE_IDLE) {
+            reportSettled();
+        }
+        if (mScrollState == scrollState) {
+            notifyChangeIfSettled();
+            applyMaxWidthIfSettled();
+            return;
+        }
+        mScrollState = scrollState;
+        notifyChangeIfSettled();
+        applyMaxWidthIfSettled();
+        if (scrollState == OnScrollListener.SCROLL_STATE_IDLE) {
+            dropScrollHardwareLayer();
+        } else {
+            promoteScrollHardwareLayer();
+        }
+        if (mOnScrollListener != null) {
+            final long start = mPerformanceSampler.begin(PickerPerformanceListener.SECTION_LISTENER);
+            mOnScrollListener.onScrollStateChange(this, scrollState);
+            mPerformanceSampler.end(PickerPerformanceListener.SECTION_LISTENER, start);
+        }
+    }
+
+    /**
+     * Reports the sampled fling and touch release, if any, once the picker is idle.
+     */
+    private void reportSettled() {
+        final PickerPerformanceListener listener = mPerformanceSampler.getListener();
+        if (mFlingSampled) {
+            mFlingSampled = false;
+            if (listener != null) {
+                listener.onFlingFinished(this, mFlingFrameCount, mFlingSlowFrameCount);
+            }
+        }
+        if (mTouchUpNanos != PerformanceSampler.NOT_SAMPLED) {
+            final long duration = System.nanoTime() - mTouchUpNanos;
+            mTouchUpNanos = PerformanceSampler.NOT_SAMPLED;
+            if (listener != null) {
+                listener.onSettled(this, duration);
+            }
+        }
+    }
+
+    /**
+     * Starts counting the frames of a fling if it is sampled.
+     */
+    private void sampleFling() {
+        mFlingSampled = mPerformanceSampler.sample(PerformanceSampler.KIND_FLING);
+        if (!mFlingSampled) {
+            return;
+        }
+        final Display display = getDisplay();
+        final float refreshRate = display != null && display.getRefreshRate() > 0
+                ? display.getRefreshRate() : 60f;
+        // a frame is slow once it missed at least one vsync
+        mSlowFrameNanos = (long) (1.5f * 1000000000L / refreshRate);
+        mFlingFrameCount = 0;
+        mFlingSlowFrameCount = 0;
+        mLastFlingFrameNanos = System.nanoTime();
+    }
+
+    private void countFlingFrame() {
+        final long now = System.nanoTime();
+        mFlingFrameCount++;
+        if (now - mLastFlingFrameNanos > mSlowFrameNanos) {
+            mFlingSlowFrameCount++;
+        }
+        mLastFlingFrameNanos = now;
+    }
+
+    /**
+     * Draws the picker into a hardware layer for the duration of a scroll, if
+     * enabled. The picker is not promoted if a layer type is set explicitly or
+     * the layer would exceed {@link #MAX_SCROLL_LAYER_BYTES}.
+     */
+    private void promoteScrollHardwareLayer() {
+        if (!mScrollHardwareLayerEnabled || mScrollHardwareLayerPromoted
+                || getLayerType() != LAYER_TYPE_NONE) {
+            return;
+        }
+        // ARGB_8888 layer
+        final long layerBytes = 4L * getWidth() * getHeight();
+        if (layerBytes == 0 || layerBytes > MAX_SCROLL_LAYER_BYTES) {
+            return;
+        }
+        setLayerType(LAYER_TYPE_HARDWARE, null);
+        mScrollHardwareLayerPromoted = true;
+    }
+
+    /**
+     * Drops the hardware layer set up by {@link #promoteScrollHardwareLayer()}.
+     */
+    private void dropScrollHardwareLayer() {
+        if (!mScrollHardwareLayerPromoted) {
+            return;
+        }
+        mScrollHardwareLayerPromoted = false;
+        setLayerType(LAYER_TYPE_NONE, null);
+    }
+
+    /**
+     * Flings the selector with the given <code>velocity</code>.
+     */
+    private void fling(int velocity) {
+        sampleFling();
+        mValueDeferred = mFlingValueDeferred;
+        mDeferredValueSteps = 0;
+        if (isHorizontalMode()) {
+            mPreviousScrollerX = 0;
+            if (velocity > 0) {
+                mFlingScroller.fling(0, 0, velocity, 0, 0, Integer.MAX_VALUE, 0, 0);
+            } else {
+                mFlingScroller.fling(Integer.MAX_VALUE, 0, velocity, 0, 0, Integer.MAX_VALUE, 0, 0);
+            }
+        } else {
+            mPreviousScrollerY = 0;
+            if (velocity > 0) {
+                mFlingScroller.fling(0, 0, 0, velocity, 0, 0, 0, Integer.MAX_VALUE);
+            } else {
+                mFlingScroller.fling(0, Integer.MAX_VALUE, 0, velocity, 0, 0, 0, Integer.MAX_VALUE);
+            }
+        }
+        if (mValueDeferred) {
+            prefetchFlingLanding();
+        }
+
+        invalidateWheel();
+    }
+
+    /**
+     * @return The wrapped index <code>selectorIndex</code> value.
+     */
+    private int getWrappedSelectorIndex(int selectorIndex) {
+        if (selectorIndex > mMaxValue) {
+            return mMinValue + (selectorIndex - mMaxValue) % (mMaxValue - mMinValue) - 1;
+        } else if (selectorIndex < mMinValue) {
+            return mMaxValue - (mMinValue - selectorIndex) % (mMaxValue - mMinValue) + 1;
+        }
+        return selectorIndex;
+    }
+
+    /**
+     * @return The selector index shown at the given position of the wheel.
+     */
+    private int getSelectorIndexAt(int position) {
+        int i = mSelectorIndicesHead + position;
+        if (i >= mSelectorIndices.length) {
+            i -= mSelectorIndices.length;
+        }
+        return mSelectorIndices[i];
+    }
+
+    /**
+     * Moves the selector indices by one step after the wheel passed an item.
+     * While the value of a fling is deferred only the visible window moves,
+     * otherwise the value is set and listeners are notified right away.
+     *
+     * @param step 1 to increment or -1 to decrement the indices.
+     */
+    private void stepSelectorIndices(int step) {
+        if (step > 0) {
+            incrementSelectorIndices();
+        } else {
+            decrementSelectorIndices();
+        }
+        final int selectorIndex = getSelectorIndexAt(mWheelMiddleItemIndex);
+        if (!mValueDeferred) {
+            mValueChangeSteps = step;
+            setValueInternal(selectorIndex, true);
+        } else if (mWrapSelectorWheel
+                || (selectorIndex >= mMinValue && selectorIndex <= mMaxValue)) {
+            mDeferredValueSteps += step;
+        } else {
+            // stop at the bounds like setting the value clamps it
+            if (step > 0) {
+                decrementSelectorIndices();
+            } else {
+                incrementSelectorIndices();
+            }
+            mCurrentScrollOffset = mInitialScrollOffset;
+        }
+    }
+
+    /**
+     * Sets the value to the one in the middle of the wheel and notifies the
+     * listeners once, if the value of a fling was deferred.
+     */
+    private void resolveDeferredValue() {
+        if (!mValueDeferred) {
+            return;
+        }
+        mValueDeferred = false;
+        mValueChangeSteps = mDeferredValueSteps;
+        mDeferredValueSteps = 0;
+        final int current = getSelectorIndexAt(mWheelMiddleItemIndex);
+        if (current == mValue) {
+            // a wrapping wheel may land on its start after whole turns, which
+            // still changes the value by the steps taken
+            if (mValueChangeSteps != 0) {
+                notifyChange(current, current);
+            }
+            return;
+        }
+        setValueInternal(current, true);
+    }
+
+    /**
+     * Caches the labels around the value a fling will land on, as predicted
+     * from the final position of the fling scroller.
+     */
+    private void prefetchFlingLanding() {
+        final Scroller scroller = mFlingScroller;
+        final int distance = isHorizontalMode()
+                ? scroller.getFinalX() - scroller.getStartX()
+                : scroller.getFinalY() - scroller.getStartY();
+        final long offset = (long) mCurrentScrollOffset - mInitialScrollOffset + distance;
+        // scrolling towards positive offsets moves to smaller values if ascending
+        final long steps = Math.round((double) offset / mSelectorElementSize);
+        long landing = getSelectorIndexAt(mWheelMiddleItemIndex)
+                + (isAscendingOrder() ? -steps : steps);
+        if (!mWrapSelectorWheel) {
+            landing = Math.min(Math.max(landing, mMinValue), mMaxValue);
+        }
+        for (int i = -mWheelMiddleItemIndex; i <= mWheelMiddleItemIndex; i++) {
+            long selectorIndex = landing + i;
+            if (mWrapSelectorWheel) {
+                final long range = (long) mMaxValue - mMinValue + 1;
+                long wrapped = (selectorIndex - mMinValue) % range;
+                if (wrapped < 0) {
+                    wrapped += range;
+                }
+                selectorIndex = mMinValue + wrapped;
+            }
+            if (selectorIndex >= mMinValue && selectorIndex <= mMaxValue) {
+                ensureCachedScrollSelectorValue((int) selectorIndex);
+            }
+        }
+    }
+
+    /**
+     * Increments the selector indices whose string representations will be
+     * displayed in the selector. The first index is dropped by moving the
+     * head of the ring buffer and its slot is reused for the new last index.
+     */
+    private void incrementSelectorIndices() {
+        final int[] selectorIndices = mSelectorIndices;
+        int nextScrollSelectorIndex = getSelectorIndexAt(selectorIndices.length - 1) + 1;
+        if (mWrapSelectorWheel && nextScrollSelectorIndex > mMaxValue) {
+            nextScrollSelectorIndex = mMinValue;
+        }
+        selectorIndices[mSelectorIndicesHead] = nextScrollSelectorIndex;
+        mSelectorIndicesHead = mSelectorIndicesHead == selectorIndices.length - 1
+                ? 0 : mSelectorIndicesHead + 1;
+        ensureCachedScrollSelectorValue(nextScrollSelectorIndex);
+    }
+
+    /**
+     * Decrements the selector indices whose string representations will be
+     * displayed in the selector. The last index is dropped by moving the head
+     * of the ring buffer back onto its slot, which holds the new first index.
+     */
+    private void decrementSelectorIndices() {
+        final int[] selectorIndices = mSelectorIndices;
+        int nextScrollSelectorIndex = getSelectorIndexAt(0) - 1;
+        if (mWrapSelectorWheel && nextScrollSelectorIndex < mMinValue) {
+            nextScrollSelectorIndex = mMaxValue;
+        }
+        mSelectorIndicesHead = mSelectorIndicesHead == 0
+                ? selectorIndices.length - 1 : mSelectorIndicesHead - 1;
+        selectorIndices[mSelectorIndicesHead] = nextScrollSelectorIndex;
+        ensureCachedScrollSelectorValue(nextScrollSelectorIndex);
+    }
+
+    /**
+     * Ensures we have a cached label of the given <code>selectorIndex</code>
+     * to avoid multiple instantiations of the same string.
+     */
+    private void ensureCachedScrollSelectorValue(int selectorIndex) {
+        if (selectorIndex < mMinValue || selectorIndex > mMaxValue || ensureLabelTable()) {
+            return;
+        }
+        SelectorLabelCache cache = mSelectorLabelCache;
+        if (cache.get(selectorIndex) != null) {
+            return;
+        }
+        final SelectorLabel label = createSelectorLabel(selectorIndex);
+        if (label != null) {
+            cache.put(selectorIndex, label);
+        }
+    }
+
+    /**
+     * Builds the label table of the whole range if it is missing and the
+     * range is not larger than the label table threshold.
+     *
+     * @return True if the label table is available.
+     */
+    private boolean ensureLabelTable() {
+        if (mLabelTable != null) {
+            return true;
+        }
+        if (mValueLabelProvider != null) {
+            // the provider is asked for visible labels only
+            return false;
+        }
+        final long range = (long) mMaxValue - mMinValue + 1;
+        if (range <= 0 || range > mLabelTableThreshold) {
+            mPreviousLabelTable = null;
+            return false;
+        }
+        final SelectorLabel[] previous = mPreviousLabelTable;
+        final SelectorLabel[] table = new SelectorLabel[(int) range];
+        for (int i = 0; i < table.length; i++) {
+            // labels of a previous range are still valid
+            final int value = mMinValue + i;
+            SelectorLabel label = null;
+            if (previous != null) {
+                final long previousIndex = (long) value - mPreviousLabelTableMin;
+                if (previousIndex >= 0 && previousIndex < previous.length) {
+                    label = previous[(int) previousIndex];
+                }
+            }
+            if (label == null) {
+                label = mSelectorLabelCache.peek(value);
+            }
+            table[i] = label != null ? label : createSelectorLabel(value);
+        }
+        mLabelTable = table;
+        mPreviousLabelTable = null;
+        return true;
+    }
+
+    /**
+     * Drops the label table before the range changes, keeping its labels for
+     * the table of the new range.
+     */
+    private void dropLabelTable() {
+        if (mLabelTable != null) {
+            mPreviousLabelTable = mLabelTable;
+            mPreviousLabelTableMin = mMinValue;
+            mLabelTable = null;
+        }
+    }
+
+    /**
+     * @return The cached label of the given index or <code>null</code> if
+     * there is none.
+     */
+    private SelectorLabel peekSelectorLabel(int selectorIndex) {
+        if (selectorIndex < mMinValue || selectorIndex > mMaxValue) {
+            return null;
+        }
+        final SelectorLabel[] table = mLabelTable;
+        return table != null ? table[selectorIndex - mMinValue]
+                : mSelectorLabelCache.peek(selectorIndex);
+    }
+
+    /**
+     * @return The label of the given index or <code>null</code> if there is
+     * no displayed value for it.
+     */
+    private SelectorLabel createSelectorLabel(int selectorIndex) {
+        String scrollSelectorValue;
+        if (mValueLabelProvider != null) {
+            scrollSelectorValue = mValueLabelProvider.label(selectorIndex);
+            if (scrollSelectorValue == null) {
+                return null;
+            }
+            fitProvidedLabel(scrollSelectorValue);
+        } else if (mDisplayedValues != null) {
+            int displayedValueIndex = selectorIndex - mMinValue;
+            if (displayedValueIndex >= mDisplayedValues.length) {
+                return null;
+            }
+            scrollSelectorValue = mDisplayedValues[displayedValueIndex];
+        } else if (mFormatter instanceof CharFormatter) {
+            final CharFormatter formatter = (CharFormatter) mFormatter;
+            final int maxLength = formatter.getMaxLength();
+            if (mFormatBuffer == null || mFormatBuffer.length < maxLength) {
+                mFormatBuffer = new char[maxLength];
+            }
+            final int length = formatter.format(selectorIndex, mFormatBuffer, 0);
+            return new SelectorLabel(Arrays.copyOf(mFormatBuffer, length));
+        } else {
+            scrollSelectorValue = formatNumber(selectorIndex);
         }
+        return new SelectorLabel(scrollSelectorValue);
     }
 
     /**
-     * Callback invoked upon completion of a given <code>scroller</code>.
+     * Drops all cached labels, they have to be formatted again.
      */
-    private void onScrollerFinished(Scroller scroller) {
-        if (scroller == mFlingScroller) {
-            ensureScrollWheelAdjusted();
-            updateInputTextView();
-            onScrollStateChange(OnScrollListener.SCROLL_STATE_IDLE);
-        } else if (mScrollState != OnScrollListener.SCROLL_STATE_TOUCH_SCROLL) {
-            updateInputTextView();
-        }
+    private void invalidateSelectorLabels() {
+        mSelectorLabelCache.clear();
+        // the labels are measured anew by the next max width computation
+        mProvidedLabelMaxWidth = 0;
+        mMaxWidthGrowPending = false;
+        mLabelTable = null;
+        mPreviousLabelTable = null;
+        mLabelLocaleEpoch = LocaleRegistry.getEpoch();
+        mLabelPrepareGeneration++;
+        // keys are lower cased in the default locale
+        mLabelPrefixIndex = null;
     }
 
     /**
-     * Handles transition to a given <code>scrollState</code>
+     * Prepares the labels on a background thread: formats them, measures
+     * their max width and, on API 28 and above, shapes them ahead of drawing.
+     * The whole range is prepared if it is not larger than the label table
+     * threshold, otherwise the values around the current one. Until the
+     * results arrive, or if the labels change in the meantime, labels are
+     * created on the main thread as needed.
+     * <p>
+     * Note: The formatter has to be safe to use from a background thread.
+     * Labels of a {@link ValueLabelProvider} are not prepared.
+     * </p>
+     *
+     * @see #setLabelTableThreshold(int)
      */
-    private void onScrollStateChange(int scrollState) {
-        if (mScrollState == scrollState) {
+    public void prepareLabels() {
+        if (mValueLabelProvider != null) {
             return;
         }
-        mScrollState = scrollState;
-        if (mOnScrollListener != null) {
-            mOnScrollListener.onScrollStateChange(this, scrollState);
+        final int firstValue;
+        final int lastValue;
+        if ((long) mMaxValue - mMinValue < mLabelTableThreshold) {
+            firstValue = mMinValue;
+            lastValue = mMaxValue;
+        } else {
+            firstValue = (int) Math.max((long) mValue - mWheelItemCount, mMinValue);
+            lastValue = (int) Math.min((long) mValue + mWheelItemCount, mMaxValue);
         }
+        new LabelPreparer(this, mLabelPrepareGeneration, mLabelStyleGeneration, mMinValue,
+                mMaxValue, firstValue, lastValue,
+                // the caller may still modify the displayed values
+                mDisplayedValues != null ? mDisplayedValues.clone() : null, mFormatter,
+                mSelectorWheelPaint, mComputeMaxWidth ? getMaxWidthPaint() : null).start();
     }
 
     /**
-     * Flings the selector with the given <code>velocity</code>.
+     * Takes over the results of a label preparation unless the labels
+     * changed since it was started.
      */
-    private void fling(int velocity) {
-        if (isHorizontalMode()) {
-            mPreviousScrollerX = 0;
-            if (velocity > 0) {
-                mFlingScroller.fling(0, 0, velocity, 0, 0, Integer.MAX_VALUE, 0, 0);
-            } else {
-                mFlingScroller.fling(Integer.MAX_VALUE, 0, velocity, 0, 0, Integer.MAX_VALUE, 0, 0);
-            }
+    void onLabelsPrepared(LabelPreparer preparer) {
+        if (preparer.mGeneration != mLabelPrepareGeneration
+                || preparer.mEpoch != LocaleRegistry.getEpoch()
+                || preparer.mMinValue != mMinValue || preparer.mMaxValue != mMaxValue) {
+            return;
+        }
+        final SelectorLabel[] labels = preparer.mLabels;
+        if (preparer.mFirstValue == mMinValue && labels.length <= mLabelTableThreshold
+                && (long) mMaxValue - mMinValue + 1 == labels.length) {
+            mLabelTable = labels;
+            mPreviousLabelTable = null;
         } else {
-            mPreviousScrollerY = 0;
-            if (velocity > 0) {
-                mFlingScroller.fling(0, 0, 0, velocity, 0, 0, 0, Integer.MAX_VALUE);
-            } else {
-                mFlingScroller.fling(0, Integer.MAX_VALUE, 0, velocity, 0, 0, 0, Integer.MAX_VALUE);
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] != null) {
+                    mSelectorLabelCache.put(preparer.mFirstValue + i, labels[i]);
+                }
             }
         }
-
+        if (preparer.mLabelSet != null) {
+            // the width is keyed by the paint it was measured with, which
+            // may differ from the current one
+            TextWidthCache.put(preparer.mMeasurePaint, preparer.mLabelSet, preparer.mMaxWidth);
+            tryComputeMaxWidth();
+        }
         invalidate();
     }
 
     /**
-     * @return The wrapped index <code>selectorIndex</code> value.
+     * Sets the max range for which the labels of all values are formatted
+     * up front, so scrolling only looks them up. Labels of larger ranges are
+     * formatted on demand and kept in a bounded cache.
+     *
+     * @param threshold The max number of values of the range.
      */
-    private int getWrappedSelectorIndex(int selectorIndex) {
-        if (selectorIndex > mMaxValue) {
-            return mMinValue + (selectorIndex - mMaxValue) % (mMaxValue - mMinValue) - 1;
-        } else if (selectorIndex < mMinValue) {
-            return mMaxValue - (mMinValue - selectorIndex) % (mMaxValue - mMinValue) + 1;
+    public void setLabelTableThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must be >= 0");
         }
-        return selectorIndex;
+        if (mLabelTableThreshold == threshold) {
+            return;
+        }
+        mLabelTableThreshold = threshold;
+        dropLabelTable();
+        initializeSelectorWheelIndices();
     }
 
-    private int[] getSelectorIndices() {
-        return mSelectorIndices;
+    public int getLabelTableThreshold() {
+        return mLabelTableThreshold;
     }
 
     /**
-     * Increments the <code>selectorIndices</code> whose string representations
-     * will be displayed in the selector.
+     * @return The number of label lookups which found the label cached.
      */
-    private void incrementSelectorIndices(int[] selectorIndices) {
-        if (selectorIndices.length - 1 >= 0)
-            System.arraycopy(selectorIndices, 1, selectorIndices, 0, selectorIndices.length - 1);
-        int nextScrollSelectorIndex = selectorIndices[selectorIndices.length - 2] + 1;
-        if (mWrapSelectorWheel && nextScrollSelectorIndex > mMaxValue) {
-            nextScrollSelectorIndex = mMinValue;
-        }
-        selectorIndices[selectorIndices.length - 1] = nextScrollSelectorIndex;
-        ensureCachedScrollSelectorValue(nextScrollSelectorIndex);
+    public long getLabelCacheHitCount() {
+        return mSelectorLabelCache.getHitCount();
     }
 
     /**
-     * Decrements the <code>selectorIndices</code> whose string representations
-     * will be displayed in the selector.
+     * @return The number of label lookups which had to format the label.
      */
-    private void decrementSelectorIndices(int[] selectorIndices) {
-        if (selectorIndices.length - 1 >= 0)
-            System.arraycopy(selectorIndices, 0, selectorIndices, 1, selectorIndices.length - 1);
-        int nextScrollSelectorIndex = selectorIndices[1] - 1;
-        if (mWrapSelectorWheel && nextScrollSelectorIndex < mMinValue) {
-            nextScrollSelectorIndex = mMaxValue;
-        }
-        selectorIndices[0] = nextScrollSelectorIndex;
-        ensureCachedScrollSelectorValue(nextScrollSelectorIndex);
+    public long getLabelCacheMissCount() {
+        return mSelectorLabelCache.getMissCount();
     }
 
     /**
-     * Ensures we have a cached string representation of the given <code>
-     * selectorIndex</code> to avoid multiple instantiations of the same string.
+     * @return The text of the given value without going through the label
+     * cache.
      */
-    private void ensureCachedScrollSelectorValue(int selectorIndex) {
-        SparseArray<String> cache = mSelectorIndexToStringCache;
-        String scrollSelectorValue = cache.get(selectorIndex);
-        if (scrollSelectorValue != null) {
-            return;
+    private String getValueText(int value) {
+        if (mValueLabelProvider != null) {
+            final String label = mValueLabelProvider.label(value);
+            return label != null ? label : "";
         }
-        if (selectorIndex < mMinValue || selectorIndex > mMaxValue) {
-            scrollSelectorValue = "";
-        } else {
-            if (mDisplayedValues != null) {
-                int displayedValueIndex = selectorIndex - mMinValue;
-                if (displayedValueIndex >= mDisplayedValues.length) {
-                    cache.remove(selectorIndex);
-                    return;
-                }
-                scrollSelectorValue = mDisplayedValues[displayedValueIndex];
-            } else {
-                scrollSelectorValue = formatNumber(selectorIndex);
+        if (mDisplayedValues != null) {
+            return mDisplayedValues[value - mMinValue];
+        }
+        return formatNumber(value);
+    }
+
+    /**
+     * Finds the first value whose displayed value or provided label starts
+     * with the given lower case prefix.
+     *
+     * @return The index of the value relative to the min value or -1 if no
+     * label matches.
+     */
+    private int indexOfLabelPrefix(String prefix) {
+        if (mValueLabelProvider != null) {
+            final int value = mValueLabelProvider.findValue(prefix, mMinValue, mMaxValue);
+            return value != ValueLabelProvider.NO_VALUE && value >= mMinValue
+                    && value <= mMaxValue ? value - mMinValue : -1;
+        } else if (mDisplayedValues != null) {
+            if (mLabelPrefixIndex == null) {
+                mLabelPrefixIndex = new LabelPrefixIndex(mDisplayedValues);
             }
+            return mLabelPrefixIndex.indexOf(prefix);
         }
-        cache.put(selectorIndex, scrollSelectorValue);
+        return -1;
     }
 
     private String formatNumber(int value) {
@@ -2305,8 +4112,8 @@ public class NumberPicker extends LinearLayout {
          * find the correct value in the displayed values for the current
          * number.
          */
-        String text = (mDisplayedValues == null) ? formatNumber(mValue)
-                : mDisplayedValues[mValue - mMinValue];
+        final SelectorLabel label = peekSelectorLabel(mValue);
+        String text = label != null ? label.getText() : getValueText(mValue);
         if (TextUtils.isEmpty(text)) {
             return;
         }
@@ -2324,8 +4131,94 @@ public class NumberPicker extends LinearLayout {
      * NumberPicker.
      */
     private void notifyChange(int previous, int current) {
+        if (mNotifyPolicy == NOTIFY_EVERY_STEP) {
+            deliverChange(previous, current);
+            return;
+        }
+        if (!mChangePending) {
+            mChangePending = true;
+            mPendingOldValue = previous;
+            mPendingSteps = 0;
+        }
+        mPendingNewValue = current;
+        mPendingSteps += mValueChangeSteps;
+        if (mNotifyPolicy == NOTIFY_PER_FRAME) {
+            postNotifyFrameCallback();
+        } else {
+            notifyChangeIfSettled();
+        }
+    }
+
+    /**
+     * Notifies the coalesced value changes, if any, with the steps summed up
+     * and skipping changes which cancelled each other out.
+     */
+    private void notifyPendingChange() {
+        if (!mChangePending) {
+            return;
+        }
+        mChangePending = false;
+        if (mPendingOldValue != mPendingNewValue || mPendingSteps != 0) {
+            mValueChangeSteps = mPendingSteps;
+            deliverChange(mPendingOldValue, mPendingNewValue);
+        }
+    }
+
+    /**
+     * Drops the coalesced value changes without notifying them.
+     */
+    private void dropPendingChange() {
+        removeNotifyFrameCallback();
+        mChangePending = false;
+    }
+
+    /**
+     * Notifies the value changes coalesced until the wheel settled, once the
+     * picker is idle and no scroller is running.
+     */
+    private void notifyChangeIfSettled() {
+        if (mNotifyPolicy == NOTIFY_ON_SETTLE && isWheelSettled()) {
+            notifyPendingChange();
+        }
+    }
+
+    /**
+     * @return Whether the picker is idle and no scroller is running.
+     */
+    private boolean isWheelSettled() {
+        return mScrollState == OnScrollListener.SCROLL_STATE_IDLE
+                && mFlingScroller.isFinished() && mAdjustScroller.isFinished();
+    }
+
+    private void postNotifyFrameCallback() {
+        if (mNotifyFramePosted) {
+            return;
+        }
+        if (mNotifyFrameCallback == null) {
+            mNotifyFrameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    mNotifyFramePosted = false;
+                    notifyPendingChange();
+                }
+            };
+        }
+        mNotifyFramePosted = true;
+        Choreographer.getInstance().postFrameCallback(mNotifyFrameCallback);
+    }
+
+    private void removeNotifyFrameCallback() {
+        if (mNotifyFramePosted) {
+            mNotifyFramePosted = false;
+            Choreographer.getInstance().removeFrameCallback(mNotifyFrameCallback);
+        }
+    }
+
+    private void deliverChange(int previous, int current) {
         if (mOnValueChangeListener != null) {
+            final long start = mPerformanceSampler.begin(PickerPerformanceListener.SECTION_LISTENER);
             mOnValueChangeListener.onValueChange(this, previous, current);
+            mPerformanceSampler.end(PickerPerformanceListener.SECTION_LISTENER, start);
         }
     }
 
@@ -2374,38 +4267,6 @@ public class NumberPicker extends LinearLayout {
         }
     }
 
-    /**
-     * @return The selected index given its displayed <code>value</code>.
-     */
-    private int getSelectedPos(String value) {
-        if (mDisplayedValues == null) {
-            try {
-                return Integer.parseInt(value);
-            } catch (NumberFormatException e) {
-                // Ignore as if it's not a number we don't care
-            }
-        } else {
-            for (int i = 0; i < mDisplayedValues.length; i++) {
-                // Don't force the user to type in jan when ja will do
-                value = value.toLowerCase();
-                if (mDisplayedValues[i].toLowerCase().startsWith(value)) {
-                    return mMinValue + i;
-                }
-            }
-
-            /*
-             * The user might have typed in a number into the month field i.e.
-             * 10 instead of OCT so support that too.
-             */
-            try {
-                return Integer.parseInt(value);
-            } catch (NumberFormatException e) {
-                // Ignore as if it's not a number we don't care
-            }
-        }
-        return mMinValue;
-    }
-
     /**
      * Posts a {@link SetSelectionCommand} from the given
      * {@code selectionStart} to {@code selectionEnd}.
@@ -2433,6 +4294,21 @@ public class NumberPicker extends LinearLayout {
      */
     class InputTextFilter extends NumberKeyListener {
 
+        /**
+         * The state of the accepted numeric text.
+         */
+        private final NumericEntry mNumericEntry = new NumericEntry();
+
+        /**
+         * The accepted chars including the digits of the default locale.
+         */
+        private char[] mAcceptedChars = DIGIT_CHARACTERS;
+
+        /**
+         * The locale epoch of the accepted chars.
+         */
+        private int mAcceptedCharsEpoch = -1;
+
         // XXX This doesn't allow for range limits when controlled by a soft input method!
         public int getInputType() {
             return InputType.TYPE_CLASS_TEXT;
@@ -2440,7 +4316,20 @@ public class NumberPicker extends LinearLayout {
 
         @Override
         protected char[] getAcceptedChars() {
-            return DIGIT_CHARACTERS;
+            final int epoch = LocaleRegistry.getEpoch();
+            if (mAcceptedCharsEpoch != epoch) {
+                final char zeroDigit = LocaleRegistry.getZeroDigit(Locale.getDefault());
+                if (zeroDigit == '0') {
+                    mAcceptedChars = DIGIT_CHARACTERS;
+                } else {
+                    mAcceptedChars = Arrays.copyOf(DIGIT_CHARACTERS, DIGIT_CHARACTERS.length + 10);
+                    for (int i = 0; i < 10; i++) {
+                        mAcceptedChars[DIGIT_CHARACTERS.length + i] = (char) (zeroDigit + i);
+                    }
+                }
+                mAcceptedCharsEpoch = epoch;
+            }
+            return mAcceptedChars;
         }
 
         @Override
@@ -2452,20 +4341,12 @@ public class NumberPicker extends LinearLayout {
                 mSetSelectionCommand.cancel();
             }
 
-            if (mDisplayedValues == null) {
+            if (!hasTextLabels()) {
                 CharSequence filtered = super.filter(source, start, end, dest, dstart, dend);
                 if (filtered == null) {
                     filtered = source.subSequence(start, end);
                 }
 
-                String result = String.valueOf(dest.subSequence(0, dstart)) + filtered
-                        + dest.subSequence(dend, dest.length());
-
-                if ("".equals(result)) {
-                    return result;
-                }
-                int val = getSelectedPos(result);
-
                 /*
                  * Ensure the user can't type in a value greater than the max
                  * allowed. We have to allow less than min as the user might
@@ -2473,11 +4354,30 @@ public class NumberPicker extends LinearLayout {
                  * And prevent multiple-"0" that exceeds the length of upper
                  * bound number.
                  */
-                if (val > mMaxValue || result.length() > String.valueOf(mMaxValue).length()) {
-                    return "";
+                final NumericEntry entry = mNumericEntry;
+                entry.setRange(mMinValue, mMaxValue);
+                final boolean appended = dstart == dend && dstart == dest.length()
+                        && entry.length() == dstart;
+                final boolean accepted;
+                if (appended) {
+                    // only the typed chars are new to the accepted text
+                    entry.mark();
+                    accepted = entry.append(filtered, 0, filtered.length());
                 } else {
+                    entry.reset();
+                    accepted = entry.append(dest, 0, dstart)
+                            && entry.append(filtered, 0, filtered.length())
+                            && entry.append(dest, dend, dest.length());
+                }
+                if (accepted) {
                     return filtered;
                 }
+                if (appended) {
+                    entry.restore();
+                } else {
+                    entry.invalidate();
+                }
+                return "";
             } else {
                 CharSequence filtered = String.valueOf(source.subSequence(start, end));
                 if (TextUtils.isEmpty(filtered)) {
@@ -2486,12 +4386,11 @@ public class NumberPicker extends LinearLayout {
                 String result = String.valueOf(dest.subSequence(0, dstart)) + filtered
                         + dest.subSequence(dend, dest.length());
                 String str = result.toLowerCase();
-                for (String val : mDisplayedValues) {
-                    String valLowerCase = val.toLowerCase();
-                    if (valLowerCase.startsWith(str)) {
-                        postSetSelectionCommand(result.length(), val.length());
-                        return val.subSequence(dstart, val.length());
-                    }
+                final int index = indexOfLabelPrefix(str);
+                if (index >= 0) {
+                    String val = getValueText(mMinValue + index);
+                    postSetSelectionCommand(result.length(), val.length());
+                    return val.subSequence(dstart, val.length());
                 }
                 return "";
             }
@@ -2519,7 +4418,7 @@ public class NumberPicker extends LinearLayout {
             mPreviousScrollerY = 0;
             mAdjustScroller.startScroll(0, 0, 0, delta, SELECTOR_ADJUSTMENT_DURATION_MILLIS);
         }
-        invalidate();
+        invalidateWheel();
     }
 
     /**
@@ -2603,12 +4502,29 @@ public class NumberPicker extends LinearLayout {
             return null;
         }
 
-        return new Formatter() {
-            @Override
-            public String format(int i) {
-                return String.format(Locale.getDefault(), formatter, i);
-            }
-        };
+        final FormatPattern pattern = FormatPattern.compile(formatter);
+        if (pattern != null) {
+            return pattern;
+        }
+        return new StringFormatter(formatter);
+    }
+
+    /**
+     * Formats values with {@link String#format(Locale, String, Object...)},
+     * static so it does not keep its picker alive.
+     */
+    private static final class StringFormatter implements Formatter {
+
+        private final String mFormat;
+
+        StringFormatter(String format) {
+            mFormat = format;
+        }
+
+        @Override
+        public String format(int value) {
+            return String.format(Locale.getDefault(), mFormat, value);
+        }
     }
 
     private void setWidthAndHeight() {
@@ -2641,6 +4557,11 @@ public class NumberPicker extends LinearLayout {
         requestLayout();
     }
 
+    public void setOrder(@Order int order) {
+        mOrder = order;
+        requestLayout();
+    }
+
     public void setWheelItemCount(int count) {
         if (count < 1) {
             throw new IllegalArgumentException("Wheel item count must be >= 1");
@@ -2648,7 +4569,11 @@ public class NumberPicker extends LinearLayout {
         mRealWheelItemCount = count;
         mWheelItemCount = Math.max(count, DEFAULT_WHEEL_ITEM_COUNT);
         mWheelMiddleItemIndex = mWheelItemCount / 2;
-        mSelectorIndices = new int[mWheelItemCount];
+        if (mSelectorIndices.length != mWheelItemCount) {
+            mSelectorIndices = new int[mWheelItemCount];
+            mSelectorIndicesHead = 0;
+        }
+        mSelectorLabelCache.setMaxSize(Math.max(DEFAULT_LABEL_CACHE_SIZE, 2 * mWheelItemCount));
     }
 
     public void setFormatter(final String formatter) {
@@ -2663,22 +4588,21 @@ public class NumberPicker extends LinearLayout {
     public void setSelectedTextColor(@ColorInt int color) {
         mSelectedTextColor = color;
         mSelectedText.setTextColor(mSelectedTextColor);
+        updateSelectorWheelPaints();
+        invalidateLabelRenderNodes();
     }
 
     public void setSelectedTextSize(float textSize) {
         mSelectedTextSize = textSize;
         mSelectedText.setTextSize(px2sp(mSelectedTextSize));
+        updateSelectorWheelPaints();
+        invalidateLabelStyle();
     }
 
     public void setSelectedTypeface(Typeface typeface) {
         mSelectedTypeface = typeface;
-        if (mSelectedTypeface != null) {
-            mSelectorWheelPaint.setTypeface(mSelectedTypeface);
-        } else if (mTypeface != null) {
-            mSelectorWheelPaint.setTypeface(mTypeface);
-        } else {
-            mSelectorWheelPaint.setTypeface(Typeface.MONOSPACE);
-        }
+        updateSelectorWheelPaints();
+        invalidateLabelStyle();
     }
 
     public void setSelectedTypeface(String string, int style) {
@@ -2697,17 +4621,21 @@ public class NumberPicker extends LinearLayout {
     @SuppressLint("ResourceAsColor")
     public void setTextColor(@ColorInt int color) {
         mTextColor = color;
-        mSelectorWheelPaint.setColor(mTextColor);
+        updateSelectorWheelPaints();
+        invalidateLabelRenderNodes();
     }
 
 
     public void setTextSize(float textSize) {
         mTextSize = textSize;
-        mSelectorWheelPaint.setTextSize(mTextSize);
+        updateSelectorWheelPaints();
+        invalidateLabelStyle();
     }
 
     public void setTypeface(Typeface typeface) {
         mTypeface = typeface;
+        updateSelectorWheelPaints();
+        invalidateLabelStyle();
         if (mTypeface != null) {
             mSelectedText.setTypeface(mTypeface);
             setSelectedTypeface(mSelectedTypeface);
@@ -2751,5 +4679,217 @@ public class NumberPicker extends LinearLayout {
         return mScrollerEnabled;
     }
 
+    /**
+     * Sets how the selector wheel fades towards its edges. {@link #FADE_EDGES}
+     * uses the view fading edges, which are drawn through offscreen layers.
+     * {@link #FADE_ALPHA} fades each label by its distance from the wheel
+     * center instead, without any offscreen layer.
+     *
+     * @param fadeMode The fade mode.
+     */
+    public void setFadeMode(@FadeMode int fadeMode) {
+        if (mFadeMode == fadeMode) {
+            return;
+        }
+        mFadeMode = fadeMode;
+        initializeFadingEdges();
+        invalidate();
+    }
+
+    @FadeMode
+    public int getFadeMode() {
+        return mFadeMode;
+    }
+
+    /**
+     * Sets whether the value of a fling is resolved once, when the wheel
+     * settles, instead of on every item passed. While deferred, the wheel
+     * only moves its visible window and the {@link OnValueChangeListener} is
+     * notified once with the landing value. Enabled by default, disable it if
+     * every intermediate value has to be notified.
+     *
+     * @param flingValueDeferred Whether the value of a fling is deferred.
+     * @see #getValueChangeSteps()
+     */
+    public void setFlingValueDeferred(boolean flingValueDeferred) {
+        mFlingValueDeferred = flingValueDeferred;
+        if (!flingValueDeferred) {
+            resolveDeferredValue();
+        }
+    }
+
+    public boolean isFlingValueDeferred() {
+        return mFlingValueDeferred;
+    }
+
+    /**
+     * Sets when the {@link OnValueChangeListener} is notified of value changes
+     * made by the user. {@link #NOTIFY_EVERY_STEP} notifies every change right
+     * away, {@link #NOTIFY_PER_FRAME} coalesces the changes made within a
+     * frame and {@link #NOTIFY_ON_SETTLE} the changes made until the wheel
+     * comes to rest. Coalesced changes are notified once, with the value
+     * before the first and after the last change, and
+     * {@link #getValueChangeSteps()} returns the steps of all of them. This
+     * applies on top of {@link #setFlingValueDeferred(boolean)}, which only
+     * coalesces the items passed by a fling.
+     *
+     * @param notifyPolicy When value changes are notified.
+     */
+    public void setValueChangeNotifyPolicy(@NotifyPolicy int notifyPolicy) {
+        if (mNotifyPolicy == notifyPolicy) {
+            return;
+        }
+        mNotifyPolicy = notifyPolicy;
+        removeNotifyFrameCallback();
+        notifyPendingChange();
+    }
+
+    @NotifyPolicy
+    public int getValueChangeNotifyPolicy() {
+        return mNotifyPolicy;
+    }
+
+    /**
+     * Returns the signed number of steps of the value change being notified
+     * to the {@link OnValueChangeListener}, counting every item the wheel
+     * passed. Unlike the difference of the new and the old value, it tells
+     * how often the wheel wrapped, e.g. 1 for a change from the max to the
+     * min value.
+     *
+     * @return The number of steps, negative if the value was decremented.
+     */
+    public int getValueChangeSteps() {
+        return mValueChangeSteps;
+    }
+
+    /**
+     * Sets whether the selector wheel is drawn curved like a cylinder, with
+     * labels rotated, scaled and faded by their distance from the center.
+     *
+     * @param curvedWheelEnabled Whether the wheel is curved.
+     */
+    public void setCurvedWheelEnabled(boolean curvedWheelEnabled) {
+        if (mCurvedWheelEnabled == curvedWheelEnabled) {
+            return;
+        }
+        mCurvedWheelEnabled = curvedWheelEnabled;
+        initializeCurvedWheel();
+        invalidate();
+    }
+
+    public boolean isCurvedWheelEnabled() {
+        return mCurvedWheelEnabled;
+    }
+
+    /**
+     * Sets the line spacing multiplier of multi-line labels.
+     *
+     * @param multiplier The line spacing multiplier.
+     */
+    public void setLineSpacingMultiplier(float multiplier) {
+        mLineSpacingMultiplier = multiplier;
+        updateSelectorWheelPaints();
+        invalidateRenderedLabels();
+        invalidate();
+    }
+
+    public float getLineSpacingMultiplier() {
+        return mLineSpacingMultiplier;
+    }
+
+    /**
+     * Sets whether the picker is drawn into a hardware layer while the wheel
+     * is scrolled or flung, so the surrounding views are not redrawn with it.
+     * The layer is dropped once the wheel is idle. Pickers with an explicit
+     * layer type or too large to keep a layer are not promoted.
+     *
+     * @param enabled Whether to use a hardware layer while scrolling.
+     */
+    public void setScrollHardwareLayerEnabled(boolean enabled) {
+        mScrollHardwareLayerEnabled = enabled;
+        if (!enabled) {
+            dropScrollHardwareLayer();
+        } else if (mScrollState != OnScrollListener.SCROLL_STATE_IDLE) {
+            promoteScrollHardwareLayer();
+        }
+    }
+
+    public boolean isScrollHardwareLayerEnabled() {
+        return mScrollHardwareLayerEnabled;
+    }
+
+    /**
+     * Sets whether each label of the selector wheel is recorded once into its
+     * own {@link RenderNode}, so scrolling only moves the nodes instead of
+     * re-recording the text. Requires API 29 and hardware acceleration,
+     * otherwise the labels are drawn as before.
+     *
+     * @param enabled Whether to cache labels in render nodes.
+     */
+    public void setRenderNodeCachingEnabled(boolean enabled) {
+        if (enabled == mRenderNodeCachingEnabled) {
+            return;
+        }
+        mRenderNodeCachingEnabled = enabled;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            if (enabled) {
+                mLabelRenderNodes = new LabelRenderNodes(LabelRenderNodes.DEFAULT_MAX_NODES);
+            } else {
+                mLabelRenderNodes.clear();
+                mLabelRenderNodes = null;
+            }
+            invalidate();
+        }
+    }
+
+    public boolean isRenderNodeCachingEnabled() {
+        return mRenderNodeCachingEnabled;
+    }
+
+    /**
+     * Sets whether the labels of the selector wheel are rendered once into a
+     * bitmap atlas and blitted from there instead of being drawn as text on
+     * every frame. The atlas holds coverage only, hence text colors are still
+     * applied while drawing. Labels which do not fit into an atlas cell are
+     * drawn as text.
+     *
+     * @param enabled Whether to use the label atlas.
+     * @see #setLabelAtlasMaxBytes(int)
+     */
+    public void setLabelAtlasEnabled(boolean enabled) {
+        if (enabled == isLabelAtlasEnabled()) {
+            return;
+        }
+        if (enabled) {
+            mLabelAtlas = new LabelAtlas(mLabelAtlasMaxBytes);
+        } else {
+            mLabelAtlas.release();
+            mLabelAtlas = null;
+        }
+        invalidate();
+    }
+
+    public boolean isLabelAtlasEnabled() {
+        return mLabelAtlas != null;
+    }
+
+    /**
+     * Sets the memory budget of the label atlas. Once the atlas is full the
+     * least recently drawn labels are evicted.
+     *
+     * @param maxBytes The max size of the atlas bitmap in bytes.
+     */
+    public void setLabelAtlasMaxBytes(int maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be > 0");
+        }
+        mLabelAtlasMaxBytes = maxBytes;
+        if (mLabelAtlas != null) {
+            mLabelAtlas.release();
+            mLabelAtlas = new LabelAtlas(maxBytes);
+            invalidate();
+        }
+    }
+
 
 }
@@ -0,0 +1,161 @@
+package com.example.datepicker;
+
+/**
+ * Parser of numbers typed into a {@link NumberPicker}, fed one char at a
+ * time without building or parsing a string.
+ * <p>
+ * The entry keeps the running value and digit count of the text fed so far
+ * and rejects a char as soon as the text can no longer become a value of
+ * the range: a value above the max, a negative value below the min or more
+ * digits than the widest bound. Values below the min are accepted as the
+ * user may still be typing. Digits of any script are accepted, so numbers
+ * can be typed with the digits of the locale.
+ * </p>
+ */
+final class NumericEntry {
+
+    private int mMinValue;
+
+    private int mMaxValue;
+
+    /**
+     * The max number of digits of a non-negative value.
+     */
+    private int mMaxPositiveDigits = 1;
+
+    /**
+     * The max number of digits of a negative value.
+     */
+    private int mMaxNegativeDigits;
+
+    /**
+     * The number of chars fed since the last reset, negative if the state
+     * does not match any text.
+     */
+    private int mLength = -1;
+
+    private boolean mNegative;
+
+    private int mDigitCount;
+
+    /**
+     * The magnitude of the value.
+     */
+    private long mMagnitude;
+
+    /**
+     * The state saved by {@link #mark()}.
+     */
+    private int mMarkedLength;
+    private boolean mMarkedNegative;
+    private int mMarkedDigitCount;
+    private long mMarkedMagnitude;
+
+    /**
+     * Sets the range of valid values.
+     */
+    void setRange(int minValue, int maxValue) {
+        if (minValue == mMinValue && maxValue == mMaxValue) {
+            return;
+        }
+        mMinValue = minValue;
+        mMaxValue = maxValue;
+        mMaxPositiveDigits = digitCount(Math.max(maxValue, 0));
+        mMaxNegativeDigits = minValue < 0 ? digitCount(-(long) minValue) : 0;
+        invalidate();
+    }
+
+    private static int digitCount(long magnitude) {
+        int digits = 1;
+        for (long rest = magnitude / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Starts parsing a new text.
+     */
+    void reset() {
+        mLength = 0;
+        mNegative = false;
+        mDigitCount = 0;
+        mMagnitude = 0;
+    }
+
+    /**
+     * Marks the state as not matching any text, until the next reset.
+     */
+    void invalidate() {
+        mLength = -1;
+    }
+
+    /**
+     * @return The number of chars fed since the last reset, negative if the
+     * state does not match any text.
+     */
+    int length() {
+        return mLength;
+    }
+
+    /**
+     * Saves the state, so it can be restored by {@link #restore()}.
+     */
+    void mark() {
+        mMarkedLength = mLength;
+        mMarkedNegative = mNegative;
+        mMarkedDigitCount = mDigitCount;
+        mMarkedMagnitude = mMagnitude;
+    }
+
+    /**
+     * Restores the state saved by {@link #mark()}.
+     */
+    void restore() {
+        mLength = mMarkedLength;
+        mNegative = mMarkedNegative;
+        mDigitCount = mMarkedDigitCount;
+        mMagnitude = mMarkedMagnitude;
+    }
+
+    /**
+     * Feeds the chars of the given text.
+     *
+     * @return False if a char was rejected.
+     */
+    boolean append(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!append(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Feeds a single char.
+     *
+     * @return False if the char was rejected.
+     */
+    boolean append(char c) {
+        if (c == '-') {
+            if (mLength != 0 || mMinValue >= 0) {
+                return false;
+            }
+            mNegative = true;
+        } else {
+            final int digit = Character.digit(c, 10);
+            if (digit < 0 || mDigitCount == (mNegative ? mMaxNegativeDigits : mMaxPositiveDigits)) {
+                return false;
+            }
+            final long magnitude = mMagnitude * 10 + digit;
+            if (mNegative ? -magnitude < mMinValue : magnitude > mMaxValue) {
+                return false;
+            }
+            mDigitCount++;
+            mMagnitude = magnitude;
+        }
+        mLength++;
+        return true;
+    }
+}
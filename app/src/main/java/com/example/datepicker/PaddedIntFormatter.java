@@ -0,0 +1,105 @@
+package com.example.datepicker;
+
+import java.util.Locale;
+
+/**
+ * Formats integers zero padded to a min width like <code>"%0Nd"</code>,
+ * using the zero digit of the default locale, e.g. "07" for a width of two.
+ * <p>
+ * Digits are written straight into a caller supplied buffer without any
+ * intermediate objects. The formatter holds no per call state, so it can be
+ * shared and used from any thread.
+ * </p>
+ */
+public final class PaddedIntFormatter implements NumberPicker.Formatter,
+        NumberPicker.CharFormatter {
+
+    /**
+     * The max number of digits of an int.
+     */
+    private static final int MAX_INT_DIGITS = 10;
+
+    /**
+     * The min width, shorter values are padded with zeros.
+     */
+    private final int mMinWidth;
+
+    /**
+     * The zero digit of the locale epoch last formatted in.
+     */
+    private volatile ZeroDigit mZeroDigit;
+
+    /**
+     * @param minWidth The min width including the sign, shorter values are
+     *                 padded with zeros.
+     */
+    public PaddedIntFormatter(int minWidth) {
+        if (minWidth < 1) {
+            throw new IllegalArgumentException("minWidth must be >= 1");
+        }
+        mMinWidth = minWidth;
+    }
+
+    @Override
+    public int getMaxLength() {
+        // the sign and the digits of any int
+        return Math.max(mMinWidth, 1 + MAX_INT_DIGITS);
+    }
+
+    @Override
+    public int format(int value, char[] buffer, int offset) {
+        final char zeroDigit = getZeroDigit();
+        long magnitude = value;
+        int length = 0;
+        if (magnitude < 0) {
+            buffer[offset] = '-';
+            magnitude = -magnitude;
+            length = 1;
+        }
+        int digits = 1;
+        for (long rest = magnitude / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        // like "%0Nd" the sign counts towards the min width
+        digits = Math.max(digits, mMinWidth - length);
+        length += digits;
+        for (int i = offset + length - 1; digits > 0; i--, digits--) {
+            buffer[i] = (char) (zeroDigit + magnitude % 10);
+            magnitude /= 10;
+        }
+        return length;
+    }
+
+    @Override
+    public String format(int value) {
+        final char[] buffer = new char[getMaxLength()];
+        return new String(buffer, 0, format(value, buffer, 0));
+    }
+
+    /**
+     * @return The zero digit of the default locale, looked up again only
+     * once the locale epoch changed.
+     */
+    private char getZeroDigit() {
+        final int epoch = LocaleRegistry.getEpoch();
+        ZeroDigit zeroDigit = mZeroDigit;
+        if (zeroDigit == null || zeroDigit.mEpoch != epoch) {
+            zeroDigit = new ZeroDigit(epoch, LocaleRegistry.getZeroDigit(Locale.getDefault()));
+            mZeroDigit = zeroDigit;
+        }
+        return zeroDigit.mDigit;
+    }
+
+    /**
+     * The zero digit of a locale epoch, published as a whole to other threads.
+     */
+    private static final class ZeroDigit {
+        final int mEpoch;
+        final char mDigit;
+
+        ZeroDigit(int epoch, char digit) {
+            mEpoch = epoch;
+            mDigit = digit;
+        }
+    }
+}
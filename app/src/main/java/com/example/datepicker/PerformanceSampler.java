@@ -0,0 +1,105 @@
+package com.example.datepicker;
+
+import android.view.View;
+
+/**
+ * Decides which work of a picker is sampled for its
+ * {@link PickerPerformanceListener} and reports the samples.
+ * <p>
+ * Every kind of event is counted separately and one out of every sample
+ * interval events is measured. Without a listener nothing is counted or
+ * measured.
+ * </p>
+ */
+final class PerformanceSampler {
+
+    /**
+     * The start time of work which is not sampled.
+     */
+    static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    /**
+     * Sample kind of flings, following the listener sections.
+     */
+    static final int KIND_FLING = PickerPerformanceListener.SECTION_LISTENER + 1;
+
+    /**
+     * Sample kind of touch releases.
+     */
+    static final int KIND_SETTLE = KIND_FLING + 1;
+
+    private static final int KIND_COUNT = KIND_SETTLE + 1;
+
+    /**
+     * The picker whose work is sampled.
+     */
+    private final View mPicker;
+
+    /**
+     * The number of events since the last sample, by kind.
+     */
+    private final int[] mEventCounts = new int[KIND_COUNT];
+
+    /**
+     * The listener receiving the samples.
+     */
+    private PickerPerformanceListener mListener;
+
+    /**
+     * One out of this many events of a kind is sampled.
+     */
+    private int mSampleInterval = 1;
+
+    PerformanceSampler(View picker) {
+        mPicker = picker;
+    }
+
+    void setListener(PickerPerformanceListener listener, int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("sampleInterval must be positive");
+        }
+        mListener = listener;
+        mSampleInterval = sampleInterval;
+        for (int kind = 0; kind < KIND_COUNT; kind++) {
+            mEventCounts[kind] = 0;
+        }
+    }
+
+    PickerPerformanceListener getListener() {
+        return mListener;
+    }
+
+    /**
+     * Counts an event of the given kind.
+     *
+     * @return Whether the event is sampled.
+     */
+    boolean sample(int kind) {
+        if (mListener == null) {
+            return false;
+        }
+        if (++mEventCounts[kind] < mSampleInterval) {
+            return false;
+        }
+        mEventCounts[kind] = 0;
+        return true;
+    }
+
+    /**
+     * Starts a section.
+     *
+     * @return The start time of the section or {@link #NOT_SAMPLED}.
+     */
+    long begin(@PickerPerformanceListener.Section int section) {
+        return sample(section) ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    /**
+     * Ends a section started by {@link #begin(int)}, reporting it if sampled.
+     */
+    void end(@PickerPerformanceListener.Section int section, long start) {
+        if (start != NOT_SAMPLED && mListener != null) {
+            mListener.onSectionTimed(mPicker, section, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.datepicker;
+
+import android.view.View;
+
+import androidx.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Interface to receive timing samples of the work done by a
+ * {@link NumberPicker} or {@link DatePicker}.
+ * <p>
+ * Samples are taken at a configurable interval, so a listener can stay
+ * registered in release builds. Callbacks are invoked on the main thread
+ * right after the measured work and should return quickly.
+ * </p>
+ */
+public interface PickerPerformanceListener {
+
+    @IntDef({SECTION_DRAW, SECTION_SCROLL, SECTION_COMPUTE_SCROLL, SECTION_UPDATE_PICKERS,
+            SECTION_LISTENER})
+    @Retention(RetentionPolicy.SOURCE)
+    @interface Section {
+    }
+
+    /**
+     * Drawing a frame of a {@link NumberPicker}.
+     */
+    int SECTION_DRAW = 0;
+
+    /**
+     * Scrolling the selector wheel of a {@link NumberPicker}.
+     */
+    int SECTION_SCROLL = 1;
+
+    /**
+     * Advancing the fling or adjustment of a {@link NumberPicker} by a frame.
+     */
+    int SECTION_COMPUTE_SCROLL = 2;
+
+    /**
+     * Updating the number pickers of a {@link DatePicker} to the current date.
+     */
+    int SECTION_UPDATE_PICKERS = 3;
+
+    /**
+     * Running the value change, scroll or date change listener of a picker.
+     */
+    int SECTION_LISTENER = 4;
+
+    /**
+     * Called with the duration of a sampled section.
+     *
+     * @param picker         The picker doing the work.
+     * @param section        The measured section.
+     * @param durationNanos  The duration of the section in nanoseconds.
+     */
+    void onSectionTimed(View picker, @Section int section, long durationNanos);
+
+    /**
+     * Called once a sampled fling settled.
+     *
+     * @param picker         The flung picker.
+     * @param frameCount     The number of frames of the fling.
+     * @param slowFrameCount The number of frames which missed their vsync.
+     */
+    void onFlingFinished(NumberPicker picker, int frameCount, int slowFrameCount);
+
+    /**
+     * Called once the picker is idle after a sampled touch was released.
+     *
+     * @param picker        The touched picker.
+     * @param durationNanos The time from the touch release until the picker
+     *                      became idle in nanoseconds.
+     */
+    void onSettled(NumberPicker picker, long durationNanos);
+}
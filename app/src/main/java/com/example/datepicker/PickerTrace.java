@@ -0,0 +1,73 @@
+package com.example.datepicker;
+
+import android.annotation.SuppressLint;
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Runtime switch for the system trace sections and counters emitted by
+ * {@link NumberPicker} and {@link DatePicker}.
+ * <p>
+ * Sections are named after the traced methods, e.g.
+ * <code>NumberPicker.onDraw</code>. While disabled, tracing costs a single
+ * static field read per traced method.
+ * </p>
+ */
+public final class PickerTrace {
+
+    /**
+     * Flag whether tracing is enabled, only ever set on API 18 and above.
+     */
+    private static boolean sEnabled;
+
+    private PickerTrace() {
+    }
+
+    /**
+     * Sets whether the pickers emit trace sections and counters. Tracing is
+     * not available below API 18, counters not below API 29.
+     *
+     * @param enabled Whether tracing is enabled.
+     */
+    public static void setEnabled(boolean enabled) {
+        sEnabled = enabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * Begins a trace section if tracing is enabled.
+     *
+     * @return Whether a section was begun and has to be ended by
+     * {@link #endSection(boolean)}.
+     */
+    @SuppressLint("NewApi")
+    static boolean beginSection(String sectionName) {
+        if (!sEnabled) {
+            return false;
+        }
+        Trace.beginSection(sectionName);
+        return true;
+    }
+
+    /**
+     * Ends the section begun by {@link #beginSection(String)}, if any.
+     */
+    @SuppressLint("NewApi")
+    static void endSection(boolean begun) {
+        if (begun) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Sets the value of a counter track if tracing is enabled.
+     */
+    static void setCounter(String counterName, long counterValue) {
+        if (sEnabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.setCounter(counterName, counterValue);
+        }
+    }
+}
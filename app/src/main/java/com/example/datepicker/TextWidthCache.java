@@ -0,0 +1,166 @@
+package com.example.datepicker;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide cache of the max widths measured by the pickers, so pickers
+ * sharing a text style and labels measure them once instead of on every
+ * range update.
+ * <p>
+ * Widths are keyed by the typeface, text size and flags of the measuring
+ * paint, the locale epoch and a label set. A label set is either
+ * {@link #LOCALE_DIGITS} for the digits of the default locale, the digits of
+ * a formatter wrapped by {@link #digitSet(NumberPicker.Formatter)} or the
+ * displayed values wrapped by {@link #labelSet(String[])}. Label sets are
+ * compared by their labels, so pickers with equal formatters share widths
+ * and the cache keeps no formatter or picker alive. The cache holds the most
+ * recently used widths only.
+ * </p>
+ */
+final class TextWidthCache {
+
+    /**
+     * The label set of the digits formatted with the default locale.
+     */
+    static final Object LOCALE_DIGITS = new Object();
+
+    /**
+     * The max number of cached widths.
+     */
+    private static final int MAX_SIZE = 32;
+
+    private static final LinkedHashMap<Key, Float> sWidths =
+            new LinkedHashMap<Key, Float>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Float> eldest) {
+                    return size() > MAX_SIZE;
+                }
+            };
+
+    /**
+     * The key reused for lookups.
+     */
+    private static final Key sLookupKey = new Key();
+
+    private TextWidthCache() {
+    }
+
+    /**
+     * @return The label set of the given displayed values, equal to the label
+     * sets of other arrays with the same values.
+     */
+    static Object labelSet(String[] displayedValues) {
+        return new LabelSet(displayedValues);
+    }
+
+    /**
+     * @return The label set of the digits formatted by the given formatter,
+     * equal to the digit sets of formatters formatting the same digits.
+     */
+    static Object digitSet(NumberPicker.Formatter formatter) {
+        final String[] digits = new String[10];
+        for (int i = 0; i < digits.length; i++) {
+            digits[i] = formatter.format(i);
+        }
+        return new LabelSet(digits);
+    }
+
+    /**
+     * @return The cached width of the label set measured with the given
+     * paint or {@link Float#NaN} if it was not measured yet.
+     */
+    static synchronized float get(Paint paint, Object labelSet) {
+        sLookupKey.set(paint, LocaleRegistry.getEpoch(), labelSet);
+        final Float width = sWidths.get(sLookupKey);
+        // drop the reference to the label set
+        sLookupKey.set(paint, 0, null);
+        return width != null ? width : Float.NaN;
+    }
+
+    /**
+     * Caches the width of the label set measured with the given paint.
+     */
+    static synchronized void put(Paint paint, Object labelSet, float width) {
+        if (labelSet instanceof LabelSet) {
+            // the caller may modify its array later on
+            labelSet = ((LabelSet) labelSet).copy();
+        }
+        final Key key = new Key();
+        key.set(paint, LocaleRegistry.getEpoch(), labelSet);
+        sWidths.put(key, width);
+    }
+
+    private static final class Key {
+        Typeface mTypeface;
+        float mTextSize;
+        int mFlags;
+        int mEpoch;
+        Object mLabelSet;
+
+        void set(Paint paint, int epoch, Object labelSet) {
+            mTypeface = paint.getTypeface();
+            mTextSize = paint.getTextSize();
+            mFlags = paint.getFlags();
+            mEpoch = epoch;
+            mLabelSet = labelSet;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return mTextSize == key.mTextSize && mFlags == key.mFlags && mEpoch == key.mEpoch
+                    && (mTypeface == null ? key.mTypeface == null
+                    : mTypeface.equals(key.mTypeface))
+                    && mLabelSet.equals(key.mLabelSet);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mTypeface != null ? mTypeface.hashCode() : 0;
+            result = 31 * result + Float.floatToIntBits(mTextSize);
+            result = 31 * result + mFlags;
+            result = 31 * result + mEpoch;
+            return 31 * result + mLabelSet.hashCode();
+        }
+    }
+
+    /**
+     * Displayed values compared by content rather than by identity.
+     */
+    private static final class LabelSet {
+        final String[] mValues;
+        final int mHashCode;
+
+        LabelSet(String[] values) {
+            this(values, Arrays.hashCode(values));
+        }
+
+        private LabelSet(String[] values, int hashCode) {
+            mValues = values;
+            mHashCode = hashCode;
+        }
+
+        LabelSet copy() {
+            return new LabelSet(mValues.clone(), mHashCode);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof LabelSet && mHashCode == ((LabelSet) o).mHashCode
+                    && Arrays.equals(mValues, ((LabelSet) o).mValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return mHashCode;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.datepicker
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Test
+import java.util.Locale
+
+/**
+ * Local unit test of [FormatPattern] formatting like [String.format] did in
+ * `NumberPicker.stringToFormatter` before patterns were compiled, and of
+ * unsupported patterns being left to [String.format].
+ *
+ * See [testing documentation](http://d.android.com/tools/testing).
+ */
+class FormatPatternTest {
+
+    @Test
+    fun compiledPatternMatchesStringFormat() {
+        for (pattern in PATTERNS) {
+            val compiled = FormatPattern.compile(pattern)
+            assertNotNull(pattern, compiled)
+            for (value in VALUES) {
+                assertEquals(pattern, String.format(Locale.getDefault(), pattern, value),
+                        compiled!!.format(value))
+            }
+        }
+    }
+
+    @Test
+    fun unsupportedPatternsFallBack() {
+        for (pattern in listOf("%x", "%,d", "%1\$d", "%0d", "%d %d", "%s")) {
+            assertNull(pattern, FormatPattern.compile(pattern))
+        }
+    }
+
+    companion object {
+        private val PATTERNS = listOf("%02d", "%d", "%04d", "Day %d", "%3d%%")
+        private val VALUES = intArrayOf(0, 7, -7, 31, 2021, Int.MIN_VALUE, Int.MAX_VALUE)
+    }
+}
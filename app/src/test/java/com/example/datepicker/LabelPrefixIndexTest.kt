@@ -0,0 +1,47 @@
+package com.example.datepicker
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * Local test checking [LabelPrefixIndex] against the linear prefix scan
+ * `NumberPicker` used to match typed text with.
+ *
+ * See [testing documentation](http://d.android.com/tools/testing).
+ */
+class LabelPrefixIndexTest {
+
+    @Test
+    fun indexMatchesLinearScan() {
+        val index = LabelPrefixIndex(LABELS)
+        for (prefix in listOf("", "j", "ja", "JA", "jun", "june", "junes", "m", "ma", "mar", "x",
+                "sept", "Sep", "d", "dé", "DÉC", "12")) {
+            val lowerCasePrefix = prefix.toLowerCase()
+            assertEquals(prefix, linearScan(lowerCasePrefix), index.indexOf(lowerCasePrefix))
+        }
+    }
+
+    @Test
+    fun firstOfDuplicateLabelsWins() {
+        val index = LabelPrefixIndex(arrayOf("b", "ab", "Ab", "a"))
+        assertEquals(1, index.indexOf("a"))
+        assertEquals(1, index.indexOf("ab"))
+        assertEquals(0, index.indexOf(""))
+    }
+
+    @Test
+    fun emptyLabels() {
+        val index = LabelPrefixIndex(arrayOf())
+        assertEquals(-1, index.indexOf(""))
+        assertEquals(-1, index.indexOf("a"))
+    }
+
+    private fun linearScan(prefix: String): Int {
+        return LABELS.indexOfFirst { it.toLowerCase().startsWith(prefix) }
+    }
+
+    companion object {
+        private val LABELS = arrayOf("Jan", "Feb", "Mar", "Apr", "May", "June", "Jun", "July",
+                "Aug", "Sept", "Sep", "Oct", "Nov", "Déc", "12", "")
+    }
+}